@@ -2,6 +2,7 @@ package pt.ipp.isep.dei.sismd;
 
 import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.executors.ExecutorsExecutorPerLine;
 import pt.ipp.isep.dei.sismd.executors.FilterExecutor;
 import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
@@ -51,7 +52,7 @@ public class MultipleImagesMain {
         System.out.println("=========================================================================================================");
         System.out.println();
 
-        List<ImageNamePair> images = files.stream().map(f -> new ImageNamePair(f.getName(), Utils.loadImage(f))).toList();
+        List<ImageNamePair> images = files.stream().map(f -> new ImageNamePair(f.getName(), Utils.loadPackedImage(f))).toList();
 
         System.out.println("=========================================================================================================");
         System.out.println("Filters that will be applied:");
@@ -70,6 +71,10 @@ public class MultipleImagesMain {
         applyGlassFilter(images);
         applyBlurFilter(images);
         applyConditionalBlurFilter(images);
+
+        PixelBufferPool.Statistics statistics = PixelBufferPool.shared().statistics();
+        System.out.printf("Output buffers: %d reused, %d allocated\n", statistics.hits(), statistics.misses());
+        System.out.println(DisplacementMapCache.shared());
     }
 
 
@@ -123,6 +128,7 @@ public class MultipleImagesMain {
         File outputDir = new File("./out/" + dirCode);
         outputDir.mkdirs();
         persistImages(processedImages, dirCode);
+        processedImages.forEach(pair -> PixelBufferPool.shared().giveBack(pair.image()));
     }
 
 
@@ -0,0 +1,154 @@
+package pt.ipp.isep.dei.sismd;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.MappedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelLayout;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Uncompressed image files that are memory-mapped instead of decoded, so loading is close to free.
+ * <p>
+ * Layout, little endian:
+ * <pre>
+ * int magic   'SIMR'
+ * int version 1
+ * int height  (first pixel coordinate, same as {@link Image#height()})
+ * int width   (second pixel coordinate, same as {@link Image#width()})
+ * int layout  {@link PixelLayout#ordinal()}, only PACKED for now
+ * int[height * width] pixels, 0xRRGGBB, row-major
+ * </pre>
+ */
+public class RawImageFormat {
+
+    public static final String EXTENSION = ".simr";
+
+    private static final int MAGIC = 0x53494D52;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+    RawImageFormat() {
+    }
+
+    /**
+     * Maps a raw image file read-only. Filters read the mapped pixels directly.
+     *
+     * @param file the raw image in the filesystem.
+     * @return the mapped image.
+     */
+    public static Image open(File file) {
+        try {
+            return map(file);
+        } catch (IOException e) {
+            System.out.println("Could not open raw image " + file.getName() + " !");
+            e.printStackTrace();
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read or is not a well-formed raw image
+     */
+    static Image map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file.getName() + " is too short to be a raw image");
+            }
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file.getName() + " is too large to map in one buffer");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException(file.getName() + " is not a version " + VERSION + " raw image");
+            }
+            int height = mapped.getInt(8);
+            int width = mapped.getInt(12);
+            int layout = mapped.getInt(16);
+            if (height <= 0 || width <= 0) {
+                throw new IOException("Invalid dimensions " + height + "x" + width + " in " + file.getName());
+            }
+            if (layout != PixelLayout.PACKED.ordinal()) {
+                throw new IOException("Unsupported pixel layout " + layout + " in " + file.getName());
+            }
+            long size = (long) height * width * Integer.BYTES;
+            if (HEADER_BYTES + size > channel.size()) {
+                throw new IOException(file.getName() + " holds " + (channel.size() - HEADER_BYTES) + " pixel bytes, "
+                        + height + "x" + width + " needs " + size);
+            }
+            // fits in an int, the whole file does
+            IntBuffer pixels = mapped.slice(HEADER_BYTES, (int) size)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+            return new Image(new MappedPixelBuffer(height, width, pixels));
+        }
+    }
+
+    /**
+     * Writes any image as a raw image file, replacing it if it exists.
+     *
+     * @param image      the image to write.
+     * @param outputFile the raw image in the filesystem.
+     */
+    public static void write(Image image, File outputFile) {
+        int height = image.height();
+        int width = image.width();
+        long size = HEADER_BYTES + (long) height * width * Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            mapped.putInt(MAGIC).putInt(VERSION).putInt(height).putInt(width).putInt(PixelLayout.PACKED.ordinal());
+            IntBuffer pixels = mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (image.pixels() instanceof PackedPixelBuffer packed) {
+                pixels.put(packed.pixels());
+            } else {
+                for (int i = 0; i < height; i++) {
+                    for (int j = 0; j < width; j++) {
+                        pixels.put(image.obtainRgb(i, j));
+                    }
+                }
+            }
+            mapped.force();
+        } catch (IOException e) {
+            System.out.println("Could not write raw image " + outputFile.getName() + " !");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Decodes a JPEG/PNG (anything ImageIO reads) once and stores it as a raw image file.
+     *
+     * @param imageFile  the encoded image.
+     * @param outputFile the raw image to create.
+     */
+    public static void convert(File imageFile, File outputFile) {
+        write(Utils.loadPackedImage(imageFile), outputFile);
+    }
+
+    /**
+     * Converts every image given as argument into a raw file next to it, e.g. {@code imgs/huge/high-tech-5157719.jpg}
+     * into {@code imgs/huge/high-tech-5157719.simr}.
+     */
+    public static void main(String[] args) {
+        for (String arg : args) {
+            File imageFile = new File(arg);
+            String name = imageFile.getName();
+            int dot = name.lastIndexOf('.');
+            File outputFile = new File(imageFile.getParentFile(), (dot < 0 ? name : name.substring(0, dot)) + EXTENSION);
+            long startTime = System.nanoTime();
+            convert(imageFile, outputFile);
+            System.out.printf("%s -> %s in %.3fs\n", imageFile, outputFile, (System.nanoTime() - startTime) / 1_000_000_000.0);
+        }
+    }
+}
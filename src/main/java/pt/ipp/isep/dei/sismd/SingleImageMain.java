@@ -90,6 +90,7 @@ public class SingleImageMain {
             case 6 -> new ConditionalBlurFilter(BLUR_STRENGTH, BLUR_CONDITIONAL);
             default -> new GrayscaleFilter();
         };
+        image = image.toLayout(filter.preferredLayout());
 
         System.out.println("Executor options: ");
         System.out.println("1 - Sequential");
@@ -2,6 +2,7 @@ package pt.ipp.isep.dei.sismd;
 
 import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
@@ -25,6 +26,18 @@ public class Utils {
         return convertTo2DFromBuffered(buffImg);
     }
 
+    /**
+     * Loads image from filename straight into a packed (0xRRGGBB int per pixel) image,
+     * without creating a Color object per pixel.
+     *
+     * @param file the name of the imge in the filesystem.
+     * @return packed image.
+     */
+    public static Image loadPackedImage(File file) {
+        BufferedImage buffImg = loadImageFile(file);
+        return convertToPackedFromBuffered(buffImg);
+    }
+
     /**
      * Converts image from a Color matrix to a .jpg file.
      *
@@ -95,7 +108,7 @@ public class Utils {
 
         for (int x = 0; x < height; x++) {
             for (int y = 0; y < width; y++) {
-                bImg.setRGB(x, y, new java.awt.Color(image.obtainPixel(x, y).red(), image.obtainPixel(x, y).green(), image.obtainPixel(x, y).blue()).getRGB());
+                bImg.setRGB(x, y, image.obtainRgb(x, y));
             }
         }
         return bImg;
@@ -129,4 +142,24 @@ public class Utils {
         return new Image(result);
     }
 
+    /**
+     * Converts a file loaded into a BufferedImage to a
+     * packed image, keeping the same (x, y) orientation as the Color matrix.
+     *
+     * @param image the BufferedImage to convert
+     * @return the packed image
+     */
+    private static Image convertToPackedFromBuffered(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        PackedPixelBuffer result = new PackedPixelBuffer(width, height);
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                result.setRgb(x, y, image.getRGB(x, y) & 0xFFFFFF);
+            }
+        }
+        return new Image(result);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import pt.ipp.isep.dei.sismd.executors.TuningProfile;
+import pt.ipp.isep.dei.sismd.filters.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sweeps executor, thread count and fork/join threshold for every filter on one image of each size class and
+ * writes the fastest settings to a {@link TuningProfile}: to the path given as first argument, or else
+ * {@value TuningProfile#DEFAULT_PATH}. Executors started with {@code -Dsismd.profile=<path>}, or from the
+ * directory holding the default file, then use them.
+ */
+public class AutoTuner extends BaseBenchmarkRunner {
+
+    private static final List<Class<? extends Filter>> FILTERS = List.of(
+            BrighterFilter.class,
+            GrayscaleFilter.class,
+            SwirlFilter.class,
+            ConditionalBlurFilter.class,
+            BlurFilter.class,
+            GlassFilter.class);
+
+    private static final String[] THRESHOLDS = {"5000", "10000", "50000", "100000"};
+
+    private static final String POOL_EXECUTORS = "multithreaded|executorsPerSlice|completableFuturePerSlice|virtualThreadsPerTile";
+
+    public static void main(String[] args) throws RunnerException {
+        Path output = Path.of(args.length > 0 ? args[0] : TuningProfile.DEFAULT_PATH);
+        int cores = Runtime.getRuntime().availableProcessors();
+        String[] threads = threadCounts(cores);
+
+        TuningProfile profile = new TuningProfile();
+        List<Integer> winningThreads = new ArrayList<>();
+        for (ImageSize size : ImageSize.values()) {
+            Optional<File> image = representativeImage(size);
+            if (image.isEmpty()) {
+                System.out.println("[WARNING] No image to tune " + size + " images with, skipping");
+                continue;
+            }
+            for (Class<? extends Filter> filter : FILTERS) {
+                List<RunResult> results = new ArrayList<>();
+                String path = image.get().getPath();
+                results.addAll(new Runner(buildOptionsForTuning(filter.getName(), path, "sequential", new String[]{"1"}, new String[]{THRESHOLDS[1]})).run());
+                results.addAll(new Runner(buildOptionsForTuning(filter.getName(), path, POOL_EXECUTORS, threads, new String[]{THRESHOLDS[1]})).run());
+                results.addAll(new Runner(buildOptionsForTuning(filter.getName(), path, "forkjoin", threads, THRESHOLDS)).run());
+
+                RunResult fastest = results.stream().min(Comparator.comparingDouble(AutoTuner::score)).orElseThrow();
+                TuningProfile.Entry entry = entry(fastest, results);
+                profile.put(filter, TuningProfile.SizeClass.valueOf(size.name()), entry);
+                System.out.println(filter.getSimpleName() + " " + size + ": " + benchmarkName(fastest) + " fastest, " + entry);
+                best(results, "multithreaded").ifPresent(result -> winningThreads.add(threads(result)));
+                best(results, "forkjoin").ifPresent(result -> winningThreads.add(threads(result)));
+            }
+        }
+        // the shared pools serve every filter, so they get the thread count that won most often
+        winningThreads.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .ifPresent(mostFrequent -> profile.setParallelism(mostFrequent.getKey()));
+        profile.save(output, "Tuned on " + cores + " cores, " + System.getProperty("os.arch") + ", Java " + Runtime.version());
+        System.out.println("Tuning profile written to " + output.toAbsolutePath());
+    }
+
+    private static TuningProfile.Entry entry(RunResult fastest, List<RunResult> results) {
+        return new TuningProfile.Entry(
+                score(fastest),
+                best(results, "multithreaded").map(AutoTuner::threads).orElse(0),
+                best(results, "forkjoin").map(result -> Integer.parseInt(result.getParams().getParam("threshold"))).orElse(0));
+    }
+
+    private static Optional<RunResult> best(List<RunResult> results, String benchmark) {
+        return results.stream()
+                .filter(result -> benchmarkName(result).equals(benchmark))
+                .min(Comparator.comparingDouble(AutoTuner::score));
+    }
+
+    private static String benchmarkName(RunResult result) {
+        String benchmark = result.getParams().getBenchmark();
+        return benchmark.substring(benchmark.lastIndexOf('.') + 1);
+    }
+
+    private static double score(RunResult result) {
+        return result.getPrimaryResult().getScore();
+    }
+
+    private static int threads(RunResult result) {
+        return Integer.parseInt(result.getParams().getParam("threads"));
+    }
+
+    /**
+     * @return 1, 2, 4... up to and including the number of cores
+     */
+    static String[] threadCounts(int cores) {
+        List<String> counts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(String.valueOf(threads));
+        }
+        counts.add(String.valueOf(cores));
+        return counts.toArray(String[]::new);
+    }
+
+    private static Optional<File> representativeImage(ImageSize size) {
+        File[] images = new File("src/main/resources/imgs/" + size.name())
+                .listFiles((dir, name) -> name.endsWith(".jpg") || name.endsWith(".png"));
+        return images == null ? Optional.empty() : Arrays.stream(images).min(Comparator.comparing(File::getName));
+    }
+}
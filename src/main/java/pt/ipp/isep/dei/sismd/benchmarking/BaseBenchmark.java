@@ -5,6 +5,8 @@ import pt.ipp.isep.dei.sismd.Utils;
 import pt.ipp.isep.dei.sismd.domain.Image;
 import pt.ipp.isep.dei.sismd.executors.*;
 import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.LookupTableFilter;
+import pt.ipp.isep.dei.sismd.filters.PointFilter;
 
 import java.io.File;
 import java.util.concurrent.TimeUnit;
@@ -24,10 +26,19 @@ public class BaseBenchmark {
 
     private Image image;
 
+    private Image packedImage;
+
+    private Filter lookupTableFilter;
+
     @Setup
     public void setup() {
         filter =  (Filter) getInstance(filterName);
         image = Utils.loadImage(new File(pathToFile));
+        packedImage = image.toPacked();
+        // filters that cannot be compiled run the per-pixel path in the lut_*LookupTable benchmarks too
+        lookupTableFilter = filter instanceof PointFilter pointFilter && pointFilter.lookupTable().isPresent()
+                ? new LookupTableFilter(pointFilter)
+                : filter;
     }
 
     private Object getInstance(String name) {
@@ -84,6 +95,26 @@ public class BaseBenchmark {
         return new ForkJoinExecutor(filter, 100000).apply(image);
     }
 
+    @Benchmark
+    public Image forkjoinRows_5000() {
+        return new ForkJoinExecutor(filter, 5000, ForkJoinExecutor.Splitting.ROW_BANDS).apply(image);
+    }
+
+    @Benchmark
+    public Image forkjoinRows_10000() {
+        return new ForkJoinExecutor(filter, 10000, ForkJoinExecutor.Splitting.ROW_BANDS).apply(image);
+    }
+
+    @Benchmark
+    public Image forkjoinRows_50000() {
+        return new ForkJoinExecutor(filter, 50000, ForkJoinExecutor.Splitting.ROW_BANDS).apply(image);
+    }
+
+    @Benchmark
+    public Image forkjoinRows_100000() {
+        return new ForkJoinExecutor(filter, 100000, ForkJoinExecutor.Splitting.ROW_BANDS).apply(image);
+    }
+
     @Benchmark
     public Image completableFuturePerPixel() {
         return new CompletableFutureExecutorPerPixel(filter).apply(image);
@@ -98,4 +129,53 @@ public class BaseBenchmark {
     public Image completableFuturePerSlice() {
         return new CompletableFutureExecutorPerSlice(filter).apply(image);
     }
+
+    @Benchmark
+    public Image virtualThreadsPerLine() {
+        try (FilterExecutor executor = new VirtualThreadExecutor(filter, VirtualThreadExecutor.Granularity.LINE)) {
+            return executor.apply(image);
+        }
+    }
+
+    @Benchmark
+    public Image virtualThreadsPerTile() {
+        try (FilterExecutor executor = new VirtualThreadExecutor(filter, VirtualThreadExecutor.Granularity.TILE)) {
+            return executor.apply(image);
+        }
+    }
+
+    @Benchmark
+    public Image selfSchedulingFixed() {
+        return new SelfSchedulingExecutor(filter, SelfSchedulingExecutor.Schedule.FIXED).apply(image);
+    }
+
+    @Benchmark
+    public Image selfSchedulingGuided() {
+        return new SelfSchedulingExecutor(filter, SelfSchedulingExecutor.Schedule.GUIDED).apply(image);
+    }
+
+    @Benchmark
+    public Image adaptive() {
+        return new AdaptiveExecutor(filter).apply(image);
+    }
+
+    @Benchmark
+    public Image lut_perPixel() {
+        return new SequentialExecutor(filter).apply(packedImage);
+    }
+
+    @Benchmark
+    public Image lut_lookupTable() {
+        return new SequentialExecutor(lookupTableFilter).apply(packedImage);
+    }
+
+    @Benchmark
+    public Image lut_forkjoinPerPixel() {
+        return new ForkJoinExecutor(filter).apply(packedImage);
+    }
+
+    @Benchmark
+    public Image lut_forkjoinLookupTable() {
+        return new ForkJoinExecutor(lookupTableFilter).apply(packedImage);
+    }
 }
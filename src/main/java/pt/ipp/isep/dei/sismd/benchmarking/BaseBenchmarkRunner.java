@@ -5,8 +5,12 @@ import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
 
 public class BaseBenchmarkRunner {
+    // the one image in imgs/huge, 7680x4320
+    public static final String HUGE_IMAGE = "high-tech-5157719";
+
     public enum ImageSize {
         huge,
         big,
@@ -47,6 +51,69 @@ public class BaseBenchmarkRunner {
                 .build();
     }
 
+    public static Options buildOptionsForLookupTableTesting(String filter, String imageName, ImageSize size){
+        return new OptionsBuilder()
+                .include(BaseBenchmark.class.getSimpleName() + ".lut_")
+                .param("pathToFile", "src/main/resources/imgs/"+ size.name() + "/" + imageName + ".jpg")
+                .param("filterName", filter)
+                .warmupIterations(3)
+                .forks(1)
+                .resultFormat(ResultFormatType.CSV)
+                .result("report/benchmark_results/"+ getSimpleFilterName(filter) + "/lut/" + size.name() + "/" + imageName + "_" + System.currentTimeMillis() + ".csv")
+                .build();
+    }
+
+    public static Options buildOptionsForForkJoinTesting(String filter, String imageName, ImageSize size){
+        return new OptionsBuilder()
+                .include(BaseBenchmark.class.getSimpleName() + ".forkjoin")
+                .param("pathToFile", "src/main/resources/imgs/"+ size.name() + "/" + imageName + ".jpg")
+                .param("filterName", filter)
+                .warmupIterations(3)
+                .forks(1)
+                .resultFormat(ResultFormatType.CSV)
+                .result("report/benchmark_results/"+ getSimpleFilterName(filter) + "/forkjoin/" + size.name() + "/" + imageName + "_" + System.currentTimeMillis() + ".csv")
+                .build();
+    }
+
+    public static Options buildOptionsForLayoutTesting(Class<?> benchmark, String imageName, ImageSize size){
+        return new OptionsBuilder()
+                .include(benchmark.getSimpleName())
+                .param("pathToFile", "src/main/resources/imgs/"+ size.name() + "/" + imageName + ".jpg")
+                .warmupIterations(3)
+                .forks(1)
+                .resultFormat(ResultFormatType.CSV)
+                .result("report/benchmark_results/layout/" + benchmark.getSimpleName().toLowerCase() + "/" + size.name() + "/" + imageName + "_" + System.currentTimeMillis() + ".csv")
+                .build();
+    }
+
+    public static Options buildOptionsForSimdTesting(String imageName, ImageSize size){
+        return new OptionsBuilder()
+                .include(SimdBenchmark.class.getSimpleName())
+                .param("pathToFile", "src/main/resources/imgs/"+ size.name() + "/" + imageName + ".jpg")
+                .warmupIterations(3)
+                .forks(1)
+                .resultFormat(ResultFormatType.CSV)
+                .result("report/benchmark_results/simd/" + size.name() + "/" + imageName + "_" + System.currentTimeMillis() + ".csv")
+                .build();
+    }
+
+    public static Options buildOptionsForTuning(String filter, String pathToFile, String benchmarks, String[] threads, String[] thresholds){
+        return new OptionsBuilder()
+                .include(TuningBenchmark.class.getSimpleName() + "\\.(" + benchmarks + ")$")
+                .param("pathToFile", pathToFile)
+                .param("filterName", filter)
+                .param("threads", threads)
+                .param("threshold", thresholds)
+                // measure the given settings, not those of a profile left by an earlier run
+                .jvmArgsAppend("-Dsismd.profile=")
+                .warmupIterations(2)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                .build();
+    }
+
     private static String getSimpleFilterName(String fqn){
         return fqn
             .replace("pt.ipp.isep.dei.sismd.filters.", "")
@@ -69,7 +136,7 @@ public class BaseBenchmarkRunner {
 
         Options hugeImage = buildOptionsForFilterTesting(
                 filter,
-                "8k",
+                HUGE_IMAGE,
                 ImageSize.huge);
         new Runner(hugeImage).run();
 
@@ -90,5 +157,52 @@ public class BaseBenchmarkRunner {
             new Runner(zGC).run();
         }
     }
-}
 
+    public static void runLayoutBenchmark(Class<?> benchmark) throws RunnerException {
+        Options bigImage = buildOptionsForLayoutTesting(
+                benchmark,
+                "4k_background",
+                ImageSize.big);
+        new Runner(bigImage).run();
+    }
+
+    public static void runLookupTableBenchmark(String filter) throws RunnerException {
+        Options bigImage = buildOptionsForLookupTableTesting(
+                filter,
+                "4k_background",
+                ImageSize.big);
+        new Runner(bigImage).run();
+
+        Options hugeImage = buildOptionsForLookupTableTesting(
+                filter,
+                HUGE_IMAGE,
+                ImageSize.huge);
+        new Runner(hugeImage).run();
+    }
+
+    public static void runForkJoinBenchmark(String filter) throws RunnerException {
+        Options bigImage = buildOptionsForForkJoinTesting(
+                filter,
+                "4k_background",
+                ImageSize.big);
+        new Runner(bigImage).run();
+
+        Options hugeImage = buildOptionsForForkJoinTesting(
+                filter,
+                HUGE_IMAGE,
+                ImageSize.huge);
+        new Runner(hugeImage).run();
+    }
+
+    public static void runSimdBenchmark() throws RunnerException {
+        Options bigImage = buildOptionsForSimdTesting(
+                "4k_background",
+                ImageSize.big);
+        new Runner(bigImage).run();
+
+        Options hugeImage = buildOptionsForSimdTesting(
+                HUGE_IMAGE,
+                ImageSize.huge);
+        new Runner(hugeImage).run();
+    }
+}
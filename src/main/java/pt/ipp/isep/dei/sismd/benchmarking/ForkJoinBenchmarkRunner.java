@@ -0,0 +1,18 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.runner.RunnerException;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.SwirlFilter;
+
+/**
+ * Quadrant against row-band splitting, the forkjoin_* and forkjoinRows_* entries of {@link BaseBenchmark}.
+ */
+public class ForkJoinBenchmarkRunner extends BaseBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        runForkJoinBenchmark(BrighterFilter.class.getName());
+        runForkJoinBenchmark(BlurFilter.class.getName());
+        runForkJoinBenchmark(SwirlFilter.class.getName());
+    }
+}
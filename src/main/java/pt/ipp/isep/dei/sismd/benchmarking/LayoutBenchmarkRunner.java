@@ -0,0 +1,11 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.runner.RunnerException;
+
+public class LayoutBenchmarkRunner extends BaseBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        runLayoutBenchmark(TiledBlurBenchmark.class);
+        runLayoutBenchmark(PartitionerBenchmark.class);
+    }
+}
@@ -0,0 +1,13 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.runner.RunnerException;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.GrayscaleFilter;
+
+public class LookupTableBenchmarkRunner extends BaseBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        runLookupTableBenchmark(BrighterFilter.class.getName());
+        runLookupTableBenchmark(GrayscaleFilter.class.getName());
+    }
+}
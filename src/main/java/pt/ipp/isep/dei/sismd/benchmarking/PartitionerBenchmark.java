@@ -0,0 +1,74 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.annotations.*;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.executors.ExecutorPools;
+import pt.ipp.isep.dei.sismd.executors.ExecutorsExecutorPerSlice;
+import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
+import pt.ipp.isep.dei.sismd.executors.MultithreadedExecutor;
+import pt.ipp.isep.dei.sismd.executors.Partitioner;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link Partitioner} under the same executors, so the difference is the shape and order of the regions
+ * alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PartitionerBenchmark {
+
+    @Param("src/main/resources/imgs/small/turtle.jpg")
+    private String pathToFile;
+
+    @Param({"brighter", "blur"})
+    private String filterName;
+
+    @Param({"rows", "columns", "tiles", "zorder", "hilbert"})
+    private String partitionerName;
+
+    private Filter filter;
+
+    private Partitioner partitioner;
+
+    private Image image;
+
+    @Setup
+    public void setup() {
+        filter = switch (filterName) {
+            case "brighter" -> new BrighterFilter(20);
+            case "blur" -> new BlurFilter(5);
+            default -> throw new IllegalArgumentException("unknown filter " + filterName);
+        };
+        partitioner = switch (partitionerName) {
+            case "rows" -> Partitioner.rowBands();
+            case "columns" -> Partitioner.columnBands();
+            case "tiles" -> Partitioner.squareTiles(Partitioner.DEFAULT_TILE_SIZE);
+            case "zorder" -> Partitioner.zOrderTiles(Partitioner.DEFAULT_TILE_SIZE);
+            case "hilbert" -> Partitioner.hilbertTiles(Partitioner.DEFAULT_TILE_SIZE);
+            default -> throw new IllegalArgumentException("unknown partitioner " + partitionerName);
+        };
+        image = Utils.loadPackedImage(new File(pathToFile));
+    }
+
+    @Benchmark
+    public Image multithreaded() {
+        return new MultithreadedExecutor(ExecutorPools.parallelism(), filter, partitioner).apply(image);
+    }
+
+    @Benchmark
+    public Image executorsPerSlice() {
+        return new ExecutorsExecutorPerSlice(filter, partitioner).apply(image);
+    }
+
+    @Benchmark
+    public Image forkjoin() {
+        return new ForkJoinExecutor(filter, partitioner).apply(image);
+    }
+}
@@ -0,0 +1,60 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.annotations.*;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelLayout;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.GrayscaleFilter;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar against Vector API inner loops for the same filter, layout and executor. Both run the same code; the
+ * scalar fork disables the kernels with -Dsismd.simd=false and the simd fork adds the incubator module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimdBenchmark {
+
+    @Param("src/main/resources/imgs/small/turtle.jpg")
+    private String pathToFile;
+
+    @Param({"brighter", "grayscale", "blur"})
+    private String filterName;
+
+    @Param({"PACKED", "PLANAR"})
+    private PixelLayout layout;
+
+    private Filter filter;
+
+    private Image image;
+
+    @Setup
+    public void setup() {
+        filter = switch (filterName) {
+            case "brighter" -> new BrighterFilter(20);
+            case "grayscale" -> new GrayscaleFilter();
+            case "blur" -> new BlurFilter(5);
+            default -> throw new IllegalArgumentException("unknown filter " + filterName);
+        };
+        image = Utils.loadPackedImage(new File(pathToFile)).toLayout(layout);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dsismd.simd=false")
+    public Image scalar() {
+        return new SequentialExecutor(filter).apply(image);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public Image simd() {
+        return new SequentialExecutor(filter).apply(image);
+    }
+}
@@ -0,0 +1,10 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.runner.RunnerException;
+
+public class SimdBenchmarkRunner extends BaseBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        runSimdBenchmark();
+    }
+}
@@ -0,0 +1,50 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.annotations.*;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row-major (packed) against tiled storage for {@link BlurFilter}, same executor and same pixels, so the
+ * difference is the memory layout alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TiledBlurBenchmark {
+
+    @Param("src/main/resources/imgs/small/turtle.jpg")
+    private String pathToFile;
+
+    @Param({"1", "5", "15"})
+    private int radius;
+
+    private Filter filter;
+
+    private Image rowMajorImage;
+
+    private Image tiledImage;
+
+    @Setup
+    public void setup() {
+        filter = new BlurFilter(radius);
+        rowMajorImage = Utils.loadPackedImage(new File(pathToFile));
+        tiledImage = rowMajorImage.toTiled();
+    }
+
+    @Benchmark
+    public Image rowMajor() {
+        return new SequentialExecutor(filter).apply(rowMajorImage);
+    }
+
+    @Benchmark
+    public Image tiled() {
+        return new SequentialExecutor(filter).apply(tiledImage);
+    }
+}
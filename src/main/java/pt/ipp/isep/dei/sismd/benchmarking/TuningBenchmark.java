@@ -0,0 +1,100 @@
+package pt.ipp.isep.dei.sismd.benchmarking;
+
+import org.openjdk.jmh.annotations.*;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.executors.*;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executors {@link AutoTuner} chooses between, each with an explicit thread count and threshold so that
+ * neither the shared pools nor an existing tuning profile decide them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TuningBenchmark {
+
+    @Param("src/main/resources/imgs/small/turtle.jpg")
+    private String pathToFile;
+
+    @Param("pt.ipp.isep.dei.sismd.filters.BrighterFilter")
+    private String filterName;
+
+    @Param("1")
+    private int threads;
+
+    @Param("10000")
+    private int threshold;
+
+    private Filter filter;
+
+    private Image image;
+
+    private ExecutorService completableFuturePool;
+
+    private FilterExecutor multithreaded;
+
+    private FilterExecutor executorsPerSlice;
+
+    private FilterExecutor completableFuturePerSlice;
+
+    private FilterExecutor virtualThreadsPerTile;
+
+    private FilterExecutor forkjoin;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        filter = (Filter) Class.forName(filterName).getDeclaredConstructor().newInstance();
+        image = Utils.loadImage(new File(pathToFile)).toLayout(filter.preferredLayout());
+        completableFuturePool = Executors.newFixedThreadPool(threads);
+        multithreaded = new MultithreadedExecutor(threads, filter);
+        executorsPerSlice = new ExecutorsExecutorPerSlice(filter, threads);
+        completableFuturePerSlice = new CompletableFutureExecutorPerSlice(filter, completableFuturePool);
+        virtualThreadsPerTile = new VirtualThreadExecutor(filter, VirtualThreadExecutor.Granularity.TILE, threads);
+        forkjoin = new ForkJoinExecutor(filter, threshold, threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorsPerSlice.close();
+        virtualThreadsPerTile.close();
+        forkjoin.close();
+        completableFuturePool.shutdown();
+    }
+
+    @Benchmark
+    public Image sequential() {
+        return new SequentialExecutor(filter).apply(image);
+    }
+
+    @Benchmark
+    public Image multithreaded() {
+        return multithreaded.apply(image);
+    }
+
+    @Benchmark
+    public Image executorsPerSlice() {
+        return executorsPerSlice.apply(image);
+    }
+
+    @Benchmark
+    public Image completableFuturePerSlice() {
+        return completableFuturePerSlice.apply(image);
+    }
+
+    @Benchmark
+    public Image virtualThreadsPerTile() {
+        return virtualThreadsPerTile.apply(image);
+    }
+
+    @Benchmark
+    public Image forkjoin() {
+        return forkjoin.apply(image);
+    }
+}
@@ -1,4 +1,37 @@
 package pt.ipp.isep.dei.sismd.domain;
 
 public record Color(int red, int green, int blue) {
+
+    /**
+     * Builds a Color from a pixel packed as 0xRRGGBB (any alpha byte is ignored).
+     *
+     * @param rgb the packed pixel
+     * @return the unpacked Color
+     */
+    public static Color ofRgb(int rgb) {
+        return new Color(red(rgb), green(rgb), blue(rgb));
+    }
+
+    public static int rgb(int red, int green, int blue) {
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    public static int red(int rgb) {
+        return (rgb >> 16) & 0xFF;
+    }
+
+    public static int green(int rgb) {
+        return (rgb >> 8) & 0xFF;
+    }
+
+    public static int blue(int rgb) {
+        return rgb & 0xFF;
+    }
+
+    /**
+     * @return this color packed as 0xRRGGBB.
+     */
+    public int rgb() {
+        return rgb(red, green, blue);
+    }
 }
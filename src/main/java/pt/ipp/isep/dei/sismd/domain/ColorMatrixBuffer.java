@@ -0,0 +1,62 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+/**
+ * The original layout: one {@link Color} object per pixel, one array per row.
+ */
+public class ColorMatrixBuffer implements PixelBuffer {
+
+    private final Color[][] pixelMatrix;
+
+    public ColorMatrixBuffer(Color[][] pixelMatrix) {
+        this.pixelMatrix = pixelMatrix;
+    }
+
+    public ColorMatrixBuffer(int height, int width) {
+        this(new Color[height][width]);
+    }
+
+    @Override
+    public int height() {
+        return pixelMatrix.length;
+    }
+
+    @Override
+    public int width() {
+        return pixelMatrix[0].length;
+    }
+
+    @Override
+    public PixelLayout layout() {
+        return PixelLayout.COLOR_MATRIX;
+    }
+
+    @Override
+    public int getRgb(int i, int j) {
+        return pixelMatrix[i][j].rgb();
+    }
+
+    @Override
+    public void setRgb(int i, int j, int rgb) {
+        pixelMatrix[i][j] = Color.ofRgb(rgb);
+    }
+
+    @Override
+    public Color getColor(int i, int j) {
+        return pixelMatrix[i][j];
+    }
+
+    @Override
+    public void setColor(int i, int j, Color color) {
+        pixelMatrix[i][j] = color;
+    }
+
+    @Override
+    public PixelBuffer emptyCopy() {
+        return new ColorMatrixBuffer(height(), width());
+    }
+
+    @Override
+    public Color[][] toColorMatrix() {
+        return pixelMatrix;
+    }
+}
@@ -1,25 +1,112 @@
 package pt.ipp.isep.dei.sismd.domain;
 
-public class Image {
-    private final Color[][] pixelMatrix;
+public class Image implements AutoCloseable {
+    private final PixelBuffer pixels;
 
     public Image(Color[][] pixelMatrix) {
-        this.pixelMatrix = pixelMatrix;
+        this(new ColorMatrixBuffer(pixelMatrix));
     }
 
+    public Image(PixelBuffer pixels) {
+        this.pixels = pixels;
+    }
+
+    /**
+     * @return the pixels as a Color matrix; the backing matrix when the image already uses that layout,
+     * a converted copy otherwise.
+     */
     public Color[][] getPixelMatrix() {
-        return pixelMatrix;
+        return pixels.toColorMatrix();
+    }
+
+    public PixelBuffer pixels() {
+        return pixels;
     }
 
     public Color obtainPixel(int i, int j) {
-        return pixelMatrix[i][j];
+        return pixels.getColor(i, j);
+    }
+
+    public int obtainRgb(int i, int j) {
+        return pixels.getRgb(i, j);
     }
 
     public int height() {
-        return pixelMatrix.length;
+        return pixels.height();
     }
 
     public int width() {
-        return pixelMatrix[0].length;
+        return pixels.width();
+    }
+
+    public PixelLayout layout() {
+        return pixels.layout();
+    }
+
+    /**
+     * @param layout the wanted pixel layout
+     * @return this image if it already uses the given layout, otherwise a converted copy of it.
+     */
+    public Image toLayout(PixelLayout layout) {
+        return switch (layout) {
+            case COLOR_MATRIX -> toColorMatrix();
+            case PACKED -> toPacked();
+            case PLANAR -> toPlanar();
+            case OFF_HEAP -> toOffHeap();
+            case TILED -> toTiled();
+            case MAPPED -> {
+                if (pixels instanceof MappedPixelBuffer) yield this;
+                throw new IllegalArgumentException("Images can only be mapped from a raw file");
+            }
+        };
+    }
+
+    /**
+     * @return this image if it is already packed, otherwise a packed copy of it.
+     */
+    public Image toPacked() {
+        if (pixels instanceof PackedPixelBuffer) return this;
+        return new Image(PackedPixelBuffer.copyOf(pixels));
+    }
+
+    /**
+     * @return this image if it is already planar, otherwise a planar copy of it.
+     */
+    public Image toPlanar() {
+        if (pixels instanceof PlanarPixelBuffer) return this;
+        return new Image(PlanarPixelBuffer.copyOf(pixels));
+    }
+
+    /**
+     * @return this image if it is already off-heap, otherwise an off-heap copy of it that must be
+     * {@link #close() closed} to free its memory.
+     */
+    public Image toOffHeap() {
+        if (pixels instanceof SegmentPixelBuffer) return this;
+        return new Image(SegmentPixelBuffer.copyOf(pixels));
+    }
+
+    /**
+     * @return this image if it is already tiled, otherwise a copy of it in tiles of the default size.
+     */
+    public Image toTiled() {
+        if (pixels instanceof TiledPixelBuffer) return this;
+        return new Image(TiledPixelBuffer.copyOf(pixels));
+    }
+
+    /**
+     * @return this image if it already uses the Color matrix layout, otherwise a converted copy of it.
+     */
+    public Image toColorMatrix() {
+        if (pixels instanceof ColorMatrixBuffer) return this;
+        return new Image(pixels.toColorMatrix());
+    }
+
+    /**
+     * Releases the pixel memory when it lives outside the heap, a no-op for the heap layouts.
+     */
+    @Override
+    public void close() {
+        pixels.close();
     }
 }
@@ -0,0 +1,232 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Summed-area tables of an image, one per channel: entry (i, j) holds the sum of every pixel above and to the
+ * left of (i, j). Once built, the sum over any window is four lookups, whatever its size, so blurs of several
+ * radii and window statistics over the same image share a single scan of its pixels.
+ * <p>
+ * The plain tables are int and rely on wrap-around arithmetic: window sums are exact as long as the true sum fits
+ * in an int, i.e. windows of up to ~8.4M pixels. The squared sums behind {@link #variance} would overflow an int
+ * past ~33k pixels, so those tables are long.
+ * <p>
+ * Use {@link #of(Image)} to get the tables of an image; they are built once, in parallel, and cached for as long
+ * as the image is reachable.
+ */
+public class IntegralImage {
+
+    private static final int COLUMN_BAND = 1024;
+
+    // guarded by itself; tables are built outside the lock
+    private static final Map<Image, IntegralImage> CACHE = new WeakHashMap<>();
+
+    public record WindowStatistics(int pixels, double meanRed, double meanGreen, double meanBlue,
+                                   double varianceRed, double varianceGreen, double varianceBlue) {
+    }
+
+    private final int height;
+    private final int width;
+    private final int stride;
+    private final int[] red;
+    private final int[] green;
+    private final int[] blue;
+    private volatile long[][] squares;
+    private final PixelBuffer source;
+    private volatile boolean evicted;
+
+    private IntegralImage(PixelBuffer source) {
+        this.source = source;
+        this.height = source.height();
+        this.width = source.width();
+        this.stride = width + 1;
+        int size = (height + 1) * stride;
+        this.red = new int[size];
+        this.green = new int[size];
+        this.blue = new int[size];
+        IntStream.range(0, height).parallel().forEach(this::sumRow);
+        sumColumns(red, green, blue);
+    }
+
+    /**
+     * @return the tables of image, built on first use and cached against the image afterwards.
+     */
+    public static IntegralImage of(Image image) {
+        IntegralImage tables;
+        synchronized (CACHE) {
+            tables = CACHE.get(image);
+        }
+        if (tables != null) {
+            return tables;
+        }
+        // two threads may both build the tables of a new image; the first one stored wins
+        IntegralImage built = new IntegralImage(image.pixels());
+        synchronized (CACHE) {
+            tables = CACHE.putIfAbsent(image, built);
+        }
+        return tables != null ? tables : built;
+    }
+
+    public static void evict(Image image) {
+        IntegralImage tables;
+        synchronized (CACHE) {
+            tables = CACHE.remove(image);
+        }
+        if (tables != null) {
+            tables.evicted = true;
+        }
+    }
+
+    /**
+     * @return whether these are still the cached tables of image, for callers keeping them between lookups
+     */
+    public boolean isFor(Image image) {
+        return !evicted && source == image.pixels();
+    }
+
+    private void sumRow(int i) {
+        int redSum = 0;
+        int greenSum = 0;
+        int blueSum = 0;
+        int offset = (i + 1) * stride + 1;
+        for (int j = 0; j < width; j++) {
+            int rgb = source.getRgb(i, j);
+            redSum += Color.red(rgb);
+            greenSum += Color.green(rgb);
+            blueSum += Color.blue(rgb);
+            red[offset + j] = redSum;
+            green[offset + j] = greenSum;
+            blue[offset + j] = blueSum;
+        }
+    }
+
+    /**
+     * Accumulates row sums down the columns, in parallel over bands of columns so each thread still walks
+     * memory row by row.
+     */
+    private void sumColumns(int[]... tables) {
+        int bands = (stride + COLUMN_BAND - 1) / COLUMN_BAND;
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int startCol = band * COLUMN_BAND;
+            int endCol = Math.min(startCol + COLUMN_BAND, stride);
+            for (int[] table : tables) {
+                for (int i = 2; i <= height; i++) {
+                    int offset = i * stride;
+                    for (int j = startCol; j < endCol; j++) {
+                        table[offset + j] += table[offset - stride + j];
+                    }
+                }
+            }
+        });
+    }
+
+    private void sumColumns(long[]... tables) {
+        int bands = (stride + COLUMN_BAND - 1) / COLUMN_BAND;
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int startCol = band * COLUMN_BAND;
+            int endCol = Math.min(startCol + COLUMN_BAND, stride);
+            for (long[] table : tables) {
+                for (int i = 2; i <= height; i++) {
+                    int offset = i * stride;
+                    for (int j = startCol; j < endCol; j++) {
+                        table[offset + j] += table[offset - stride + j];
+                    }
+                }
+            }
+        });
+    }
+
+    private long[][] squares() {
+        long[][] result = squares;
+        if (result == null) {
+            synchronized (this) {
+                result = squares;
+                if (result == null) {
+                    int size = (height + 1) * stride;
+                    long[][] tables = {new long[size], new long[size], new long[size]};
+                    IntStream.range(0, height).parallel().forEach(i -> {
+                        long redSum = 0;
+                        long greenSum = 0;
+                        long blueSum = 0;
+                        int offset = (i + 1) * stride + 1;
+                        for (int j = 0; j < width; j++) {
+                            int rgb = source.getRgb(i, j);
+                            redSum += Color.red(rgb) * Color.red(rgb);
+                            greenSum += Color.green(rgb) * Color.green(rgb);
+                            blueSum += Color.blue(rgb) * Color.blue(rgb);
+                            tables[0][offset + j] = redSum;
+                            tables[1][offset + j] = greenSum;
+                            tables[2][offset + j] = blueSum;
+                        }
+                    });
+                    sumColumns(tables);
+                    squares = result = tables;
+                }
+            }
+        }
+        return result;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    private int windowSum(int[] table, int startRow, int endRow, int startCol, int endCol) {
+        int bottom = (endRow + 1) * stride;
+        int top = startRow * stride;
+        return table[bottom + endCol + 1] - table[top + endCol + 1] - table[bottom + startCol] + table[top + startCol];
+    }
+
+    private long windowSum(long[] table, int startRow, int endRow, int startCol, int endCol) {
+        int bottom = (endRow + 1) * stride;
+        int top = startRow * stride;
+        return table[bottom + endCol + 1] - table[top + endCol + 1] - table[bottom + startCol] + table[top + startCol];
+    }
+
+    /**
+     * Window bounds are inclusive and must be inside the image.
+     */
+    public int redSum(int startRow, int endRow, int startCol, int endCol) {
+        return windowSum(red, startRow, endRow, startCol, endCol);
+    }
+
+    public int greenSum(int startRow, int endRow, int startCol, int endCol) {
+        return windowSum(green, startRow, endRow, startCol, endCol);
+    }
+
+    public int blueSum(int startRow, int endRow, int startCol, int endCol) {
+        return windowSum(blue, startRow, endRow, startCol, endCol);
+    }
+
+    /**
+     * @return the integer mean of each channel over the window, packed as 0xRRGGBB
+     */
+    public int meanRgb(int startRow, int endRow, int startCol, int endCol) {
+        int pixels = (endRow - startRow + 1) * (endCol - startCol + 1);
+        return Color.rgb(redSum(startRow, endRow, startCol, endCol) / pixels,
+                greenSum(startRow, endRow, startCol, endCol) / pixels,
+                blueSum(startRow, endRow, startCol, endCol) / pixels);
+    }
+
+    /**
+     * Mean and (population) variance of each channel over the window. The first call builds the squared-sum
+     * tables.
+     */
+    public WindowStatistics variance(int startRow, int endRow, int startCol, int endCol) {
+        long[][] squareTables = squares();
+        int pixels = (endRow - startRow + 1) * (endCol - startCol + 1);
+        double meanRed = (double) redSum(startRow, endRow, startCol, endCol) / pixels;
+        double meanGreen = (double) greenSum(startRow, endRow, startCol, endCol) / pixels;
+        double meanBlue = (double) blueSum(startRow, endRow, startCol, endCol) / pixels;
+        double varianceRed = (double) windowSum(squareTables[0], startRow, endRow, startCol, endCol) / pixels - meanRed * meanRed;
+        double varianceGreen = (double) windowSum(squareTables[1], startRow, endRow, startCol, endCol) / pixels - meanGreen * meanGreen;
+        double varianceBlue = (double) windowSum(squareTables[2], startRow, endRow, startCol, endCol) / pixels - meanBlue * meanBlue;
+        return new WindowStatistics(pixels, meanRed, meanGreen, meanBlue, varianceRed, varianceGreen, varianceBlue);
+    }
+}
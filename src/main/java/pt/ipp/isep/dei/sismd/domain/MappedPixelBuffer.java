@@ -0,0 +1,66 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import java.nio.IntBuffer;
+
+/**
+ * Read-only packed 0xRRGGBB pixels, row-major, read straight from a memory-mapped raw image file (see
+ * {@code RawImageFormat}). Nothing is decoded nor copied on load: pages are faulted in as filters touch them.
+ * <p>
+ * Outputs ({@link #emptyCopy()}) are plain {@link PackedPixelBuffer}s on the heap.
+ */
+public class MappedPixelBuffer implements PixelBuffer {
+
+    private final int height;
+    private final int width;
+    private final IntBuffer pixels;
+
+    public MappedPixelBuffer(int height, int width, IntBuffer pixels) {
+        if (pixels.limit() != height * width) {
+            throw new IllegalArgumentException("Expected " + height * width + " pixels but got " + pixels.limit());
+        }
+        this.height = height;
+        this.width = width;
+        this.pixels = pixels;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public PixelLayout layout() {
+        return PixelLayout.MAPPED;
+    }
+
+    public int getRgb(int index) {
+        return pixels.get(index);
+    }
+
+    @Override
+    public int getRgb(int i, int j) {
+        return pixels.get(i * width + j);
+    }
+
+    @Override
+    public void setRgb(int i, int j, int rgb) {
+        throw new UnsupportedOperationException("Mapped images are read-only");
+    }
+
+    /**
+     * @return a read-only view of the mapped pixels.
+     */
+    public IntBuffer pixels() {
+        return pixels.asReadOnlyBuffer();
+    }
+
+    @Override
+    public PixelBuffer emptyCopy() {
+        return new PackedPixelBuffer(height, width);
+    }
+}
@@ -0,0 +1,96 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+/**
+ * Row-major pixels packed as 0xRRGGBB in a single int[], pixel (i, j) lives at {@code i * width + j}.
+ * An 8k image takes ~130 MB instead of one {@link Color} object per pixel.
+ */
+public class PackedPixelBuffer implements PixelBuffer {
+
+    private final int height;
+    private final int width;
+    private final int[] pixels;
+
+    public PackedPixelBuffer(int height, int width, int[] pixels) {
+        if (pixels.length != height * width) {
+            throw new IllegalArgumentException("Expected " + height * width + " pixels but got " + pixels.length);
+        }
+        this.height = height;
+        this.width = width;
+        this.pixels = pixels;
+    }
+
+    public PackedPixelBuffer(int height, int width) {
+        this(height, width, new int[height * width]);
+    }
+
+    public static PackedPixelBuffer fromColorMatrix(Color[][] pixelMatrix) {
+        int height = pixelMatrix.length;
+        int width = pixelMatrix[0].length;
+        int[] pixels = new int[height * width];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                pixels[i * width + j] = pixelMatrix[i][j].rgb();
+            }
+        }
+        return new PackedPixelBuffer(height, width, pixels);
+    }
+
+    public static PackedPixelBuffer copyOf(PixelBuffer buffer) {
+        PackedPixelBuffer copy = new PackedPixelBuffer(buffer.height(), buffer.width());
+        for (int i = 0; i < buffer.height(); i++) {
+            for (int j = 0; j < buffer.width(); j++) {
+                copy.pixels[copy.indexOf(i, j)] = buffer.getRgb(i, j);
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    public int indexOf(int i, int j) {
+        return i * width + j;
+    }
+
+    public int getRgb(int index) {
+        return pixels[index];
+    }
+
+    public void setRgb(int index, int rgb) {
+        pixels[index] = rgb;
+    }
+
+    @Override
+    public PixelLayout layout() {
+        return PixelLayout.PACKED;
+    }
+
+    @Override
+    public int getRgb(int i, int j) {
+        return pixels[i * width + j];
+    }
+
+    @Override
+    public void setRgb(int i, int j, int rgb) {
+        pixels[i * width + j] = rgb;
+    }
+
+    /**
+     * @return the backing array, not a copy.
+     */
+    public int[] pixels() {
+        return pixels;
+    }
+
+    @Override
+    public PixelBuffer emptyCopy() {
+        return new PackedPixelBuffer(height, width);
+    }
+}
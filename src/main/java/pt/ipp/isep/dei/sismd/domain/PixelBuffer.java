@@ -0,0 +1,54 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+/**
+ * Storage behind an {@link Image}. Pixels are addressed by (i, j), with i in [0, height) and j in [0, width),
+ * and exchanged as packed 0xRRGGBB ints so that filters and executors can work without allocating a
+ * {@link Color} per pixel.
+ * <p>
+ * Writes to distinct pixels from different threads are safe; publication of the written pixels is left to
+ * the executor (thread join, pool termination, future completion...).
+ */
+public interface PixelBuffer extends AutoCloseable {
+
+    int height();
+
+    int width();
+
+    PixelLayout layout();
+
+    int getRgb(int i, int j);
+
+    void setRgb(int i, int j, int rgb);
+
+    default Color getColor(int i, int j) {
+        return Color.ofRgb(getRgb(i, j));
+    }
+
+    default void setColor(int i, int j, Color color) {
+        setRgb(i, j, color.rgb());
+    }
+
+    /**
+     * Allocates an uninitialized buffer with the same layout and dimensions, used by executors as output.
+     *
+     * @return a new buffer
+     */
+    PixelBuffer emptyCopy();
+
+    default Color[][] toColorMatrix() {
+        Color[][] matrix = new Color[height()][width()];
+        for (int i = 0; i < height(); i++) {
+            for (int j = 0; j < width(); j++) {
+                matrix[i][j] = getColor(i, j);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Releases the pixel memory for layouts that hold it outside the heap. The buffer must not be used afterwards.
+     */
+    @Override
+    default void close() {
+    }
+}
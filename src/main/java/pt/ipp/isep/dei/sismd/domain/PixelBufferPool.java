@@ -0,0 +1,143 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Recycles executor output buffers. Batch runs keep filtering images of the same few sizes, so once a result has
+ * been written out its buffer can be handed back and reused as the output of a later call instead of allocating
+ * a new one.
+ * <p>
+ * Buffers are keyed by layout and size, at most {@code capacity} of them are retained in total (extra ones are
+ * dropped for the GC) and borrowed buffers hold whatever the previous user left in them, which is fine for
+ * executors since they overwrite every pixel. Only the heap layouts are pooled; off-heap and tiled buffers are
+ * always freshly allocated.
+ */
+public class PixelBufferPool {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private static final PixelBufferPool SHARED = new PixelBufferPool(DEFAULT_CAPACITY);
+
+    private static final List<Consumer<Image>> GIVE_BACK_LISTENERS = new CopyOnWriteArrayList<>();
+
+    public record Statistics(long hits, long misses, long returned, long dropped) {
+    }
+
+    private record Key(PixelLayout layout, int height, int width) {
+    }
+
+    private final int capacity;
+    private final Map<Key, Queue<PixelBuffer>> buffers = new ConcurrentHashMap<>();
+    // the buffers currently in the queues, so one given back twice is not handed out twice
+    private final Set<PixelBuffer> pooled = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final AtomicInteger retained = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder returned = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public PixelBufferPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the pool used by the executors in {@code pt.ipp.isep.dei.sismd.executors}.
+     */
+    public static PixelBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param source the image buffer an executor is about to filter
+     * @return an output buffer compatible with {@code source.emptyCopy()}, recycled when possible
+     */
+    public PixelBuffer borrow(PixelBuffer source) {
+        PixelLayout layout = outputLayoutOf(source.layout());
+        if (layout == null) {
+            return source.emptyCopy();
+        }
+        Queue<PixelBuffer> queue = buffers.get(new Key(layout, source.height(), source.width()));
+        PixelBuffer buffer = queue == null ? null : queue.poll();
+        if (buffer == null) {
+            misses.increment();
+            return source.emptyCopy();
+        }
+        pooled.remove(buffer);
+        retained.decrementAndGet();
+        hits.increment();
+        return buffer;
+    }
+
+    /**
+     * Hands back the pixels of an image that is no longer used. Neither the image nor its pixel matrix may be
+     * touched afterwards.
+     */
+    public void giveBack(Image image) {
+        IntegralImage.evict(image);
+        GIVE_BACK_LISTENERS.forEach(listener -> listener.accept(image));
+        giveBack(image.pixels());
+    }
+
+    /**
+     * Registers a cache of per-image state (masks, say) to be cleared of an image when it is given back to any
+     * pool, so a recycled buffer never meets state computed from its previous pixels.
+     */
+    public static void onGiveBack(Consumer<Image> listener) {
+        GIVE_BACK_LISTENERS.add(listener);
+    }
+
+    /**
+     * Pools buffer for a later {@link #borrow}. A buffer that is already pooled is ignored.
+     */
+    public void giveBack(PixelBuffer buffer) {
+        PixelLayout layout = buffer.layout();
+        if (outputLayoutOf(layout) != layout || !pooled.add(buffer)) {
+            return;
+        }
+        returned.increment();
+        if (retained.incrementAndGet() > capacity) {
+            pooled.remove(buffer);
+            retained.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        buffers.computeIfAbsent(new Key(layout, buffer.height(), buffer.width()), k -> new ConcurrentLinkedQueue<>())
+                .offer(buffer);
+    }
+
+    public Statistics statistics() {
+        return new Statistics(hits.sum(), misses.sum(), returned.sum(), dropped.sum());
+    }
+
+    public int retained() {
+        return retained.get();
+    }
+
+    public void clear() {
+        buffers.clear();
+        pooled.clear();
+        retained.set(0);
+    }
+
+    /**
+     * @return the layout of {@code emptyCopy()} for the pooled layouts, null for the ones that are never pooled.
+     */
+    private static PixelLayout outputLayoutOf(PixelLayout sourceLayout) {
+        return switch (sourceLayout) {
+            case COLOR_MATRIX, PACKED, PLANAR -> sourceLayout;
+            case MAPPED -> PixelLayout.PACKED;
+            case OFF_HEAP, TILED -> null;
+        };
+    }
+}
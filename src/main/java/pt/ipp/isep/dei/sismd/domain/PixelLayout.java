@@ -0,0 +1,29 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+public enum PixelLayout {
+    /**
+     * One {@link Color} object per pixel, see {@link ColorMatrixBuffer}.
+     */
+    COLOR_MATRIX,
+    /**
+     * One 0xRRGGBB int per pixel, see {@link PackedPixelBuffer}.
+     */
+    PACKED,
+    /**
+     * One byte plane per channel, see {@link PlanarPixelBuffer}.
+     */
+    PLANAR,
+    /**
+     * One 0xRRGGBB int per pixel in off-heap memory, see {@link SegmentPixelBuffer}.
+     */
+    OFF_HEAP,
+    /**
+     * One 0xRRGGBB int per pixel, grouped in square tiles, see {@link TiledPixelBuffer}.
+     */
+    TILED,
+    /**
+     * One 0xRRGGBB int per pixel, read-only and memory-mapped from a raw image file, see {@link MappedPixelBuffer}.
+     * Images are only ever mapped by {@code RawImageFormat.open}, never converted into this layout.
+     */
+    MAPPED
+}
@@ -0,0 +1,106 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+/**
+ * Structure-of-arrays layout: red, green and blue live in three separate row-major byte planes, pixel (i, j)
+ * at {@code i * width + j} in each of them. Takes 3 bytes per pixel, and channel-by-channel loops over the
+ * planes are simple enough for the JIT to vectorize.
+ * <p>
+ * Bytes are stored unsigned, always read them through {@code & 0xFF} (or the accessors below).
+ */
+public class PlanarPixelBuffer implements PixelBuffer {
+
+    private final int height;
+    private final int width;
+    private final byte[] red;
+    private final byte[] green;
+    private final byte[] blue;
+
+    public PlanarPixelBuffer(int height, int width) {
+        this.height = height;
+        this.width = width;
+        this.red = new byte[height * width];
+        this.green = new byte[height * width];
+        this.blue = new byte[height * width];
+    }
+
+    public static PlanarPixelBuffer copyOf(PixelBuffer buffer) {
+        PlanarPixelBuffer copy = new PlanarPixelBuffer(buffer.height(), buffer.width());
+        for (int i = 0; i < buffer.height(); i++) {
+            for (int j = 0; j < buffer.width(); j++) {
+                copy.setRgb(i, j, buffer.getRgb(i, j));
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public PixelLayout layout() {
+        return PixelLayout.PLANAR;
+    }
+
+    public int indexOf(int i, int j) {
+        return i * width + j;
+    }
+
+    public int getRed(int index) {
+        return red[index] & 0xFF;
+    }
+
+    public int getGreen(int index) {
+        return green[index] & 0xFF;
+    }
+
+    public int getBlue(int index) {
+        return blue[index] & 0xFF;
+    }
+
+    @Override
+    public int getRgb(int i, int j) {
+        int index = i * width + j;
+        return Color.rgb(red[index] & 0xFF, green[index] & 0xFF, blue[index] & 0xFF);
+    }
+
+    @Override
+    public void setRgb(int i, int j, int rgb) {
+        int index = i * width + j;
+        red[index] = (byte) Color.red(rgb);
+        green[index] = (byte) Color.green(rgb);
+        blue[index] = (byte) Color.blue(rgb);
+    }
+
+    /**
+     * @return the backing red plane, not a copy.
+     */
+    public byte[] red() {
+        return red;
+    }
+
+    /**
+     * @return the backing green plane, not a copy.
+     */
+    public byte[] green() {
+        return green;
+    }
+
+    /**
+     * @return the backing blue plane, not a copy.
+     */
+    public byte[] blue() {
+        return blue;
+    }
+
+    @Override
+    public PixelBuffer emptyCopy() {
+        return new PlanarPixelBuffer(height, width);
+    }
+}
@@ -0,0 +1,127 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Packed 0xRRGGBB pixels, row-major like {@link PackedPixelBuffer}, but stored off-heap in a
+ * {@link MemorySegment} so that big images do not grow the heap nor add to GC work.
+ * <p>
+ * The memory lives as long as its {@link Arena}. A buffer created without an arena owns a shared one and frees
+ * it on {@link #close()}; a buffer created in a caller's arena is freed when that arena is closed, and its
+ * {@link #emptyCopy()} is allocated in the same arena. Arenas must be shared ones for the multithreaded
+ * executors to be able to touch the pixels.
+ * <p>
+ * Needs {@code --enable-preview} on Java 21.
+ */
+public class SegmentPixelBuffer implements PixelBuffer {
+
+    private static final ValueLayout.OfInt PIXEL = ValueLayout.JAVA_INT;
+
+    private final int height;
+    private final int width;
+    private final Arena arena;
+    private final boolean ownsArena;
+    private final MemorySegment pixels;
+
+    private SegmentPixelBuffer(int height, int width, Arena arena, boolean ownsArena) {
+        this.height = height;
+        this.width = width;
+        this.arena = arena;
+        this.ownsArena = ownsArena;
+        this.pixels = arena.allocateArray(PIXEL, (long) height * width);
+    }
+
+    public SegmentPixelBuffer(int height, int width, Arena arena) {
+        this(height, width, arena, false);
+    }
+
+    public SegmentPixelBuffer(int height, int width) {
+        this(height, width, Arena.ofShared(), true);
+    }
+
+    public static SegmentPixelBuffer copyOf(PixelBuffer buffer) {
+        SegmentPixelBuffer copy = new SegmentPixelBuffer(buffer.height(), buffer.width());
+        copy.copyFrom(buffer);
+        return copy;
+    }
+
+    public static SegmentPixelBuffer copyOf(PixelBuffer buffer, Arena arena) {
+        SegmentPixelBuffer copy = new SegmentPixelBuffer(buffer.height(), buffer.width(), arena);
+        copy.copyFrom(buffer);
+        return copy;
+    }
+
+    private void copyFrom(PixelBuffer buffer) {
+        if (buffer instanceof PackedPixelBuffer packed) {
+            MemorySegment.copy(packed.pixels(), 0, pixels, PIXEL, 0, packed.pixels().length);
+            return;
+        }
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                setRgb(i, j, buffer.getRgb(i, j));
+            }
+        }
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public PixelLayout layout() {
+        return PixelLayout.OFF_HEAP;
+    }
+
+    public long indexOf(int i, int j) {
+        return (long) i * width + j;
+    }
+
+    public int getRgb(long index) {
+        return pixels.getAtIndex(PIXEL, index);
+    }
+
+    public void setRgb(long index, int rgb) {
+        pixels.setAtIndex(PIXEL, index, rgb);
+    }
+
+    @Override
+    public int getRgb(int i, int j) {
+        return pixels.getAtIndex(PIXEL, (long) i * width + j);
+    }
+
+    @Override
+    public void setRgb(int i, int j, int rgb) {
+        pixels.setAtIndex(PIXEL, (long) i * width + j, rgb);
+    }
+
+    /**
+     * @return the backing segment, not a copy.
+     */
+    public MemorySegment segment() {
+        return pixels;
+    }
+
+    @Override
+    public PixelBuffer emptyCopy() {
+        return ownsArena ? new SegmentPixelBuffer(height, width) : new SegmentPixelBuffer(height, width, arena);
+    }
+
+    /**
+     * Frees the pixels right away if this buffer owns its arena, otherwise does nothing and leaves it to the
+     * arena's owner.
+     */
+    @Override
+    public void close() {
+        if (ownsArena) {
+            arena.close();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packed 0xRRGGBB pixels grouped in square tiles (64x64 by default) stored one after the other, each tile
+ * row-major inside. A tile is 16 KB, so a filter working through one tile, or reading a small neighbourhood,
+ * stays within L1/L2 instead of striding across whole image rows.
+ * <p>
+ * Tiles on the right and bottom edges are padded to the full tile size; padding pixels are never read.
+ */
+public class TiledPixelBuffer implements PixelBuffer {
+
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    /**
+     * Pixels [startRow, endRow) x [startCol, endCol) of one tile, clipped to the image.
+     */
+    public record Tile(int startRow, int endRow, int startCol, int endCol) {
+    }
+
+    private final int height;
+    private final int width;
+    private final int tileSize;
+    private final int tileShift;
+    private final int tileMask;
+    private final int tilesAcross;
+    private final int tilesDown;
+    private final int[] pixels;
+
+    public TiledPixelBuffer(int height, int width, int tileSize) {
+        if (Integer.bitCount(tileSize) != 1) {
+            throw new IllegalArgumentException("Tile size must be a power of two, got " + tileSize);
+        }
+        this.height = height;
+        this.width = width;
+        this.tileSize = tileSize;
+        this.tileShift = Integer.numberOfTrailingZeros(tileSize);
+        this.tileMask = tileSize - 1;
+        this.tilesAcross = (width + tileMask) >> tileShift;
+        this.tilesDown = (height + tileMask) >> tileShift;
+        this.pixels = new int[tilesAcross * tilesDown * tileSize * tileSize];
+    }
+
+    public TiledPixelBuffer(int height, int width) {
+        this(height, width, DEFAULT_TILE_SIZE);
+    }
+
+    public static TiledPixelBuffer copyOf(PixelBuffer buffer, int tileSize) {
+        TiledPixelBuffer copy = new TiledPixelBuffer(buffer.height(), buffer.width(), tileSize);
+        for (int i = 0; i < buffer.height(); i++) {
+            for (int j = 0; j < buffer.width(); j++) {
+                copy.setRgb(i, j, buffer.getRgb(i, j));
+            }
+        }
+        return copy;
+    }
+
+    public static TiledPixelBuffer copyOf(PixelBuffer buffer) {
+        return copyOf(buffer, DEFAULT_TILE_SIZE);
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public PixelLayout layout() {
+        return PixelLayout.TILED;
+    }
+
+    public int tileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return position of pixel (i, j) in {@link #pixels()}. Pixels (i, j + 1) ... up to the end of the tile,
+     * see {@link #tileEndCol(int)}, follow it contiguously, which is how neighbourhood filters should walk a
+     * window row: one contiguous run per tile it crosses.
+     */
+    public int offsetOf(int i, int j) {
+        int tile = (i >> tileShift) * tilesAcross + (j >> tileShift);
+        return (tile << (2 * tileShift)) | ((i & tileMask) << tileShift) | (j & tileMask);
+    }
+
+    /**
+     * @return the last column (inclusive) of the tile holding column j, clipped to the image.
+     */
+    public int tileEndCol(int j) {
+        return Math.min(j | tileMask, width - 1);
+    }
+
+    @Override
+    public int getRgb(int i, int j) {
+        return pixels[offsetOf(i, j)];
+    }
+
+    @Override
+    public void setRgb(int i, int j, int rgb) {
+        pixels[offsetOf(i, j)] = rgb;
+    }
+
+    /**
+     * @return the backing array, not a copy.
+     */
+    public int[] pixels() {
+        return pixels;
+    }
+
+    /**
+     * @return every tile, in the order they are laid out in memory.
+     */
+    public List<Tile> tiles() {
+        List<Tile> tiles = new ArrayList<>(tilesAcross * tilesDown);
+        for (int ti = 0; ti < tilesDown; ti++) {
+            for (int tj = 0; tj < tilesAcross; tj++) {
+                tiles.add(new Tile(ti << tileShift, Math.min((ti + 1) << tileShift, height),
+                        tj << tileShift, Math.min((tj + 1) << tileShift, width)));
+            }
+        }
+        return tiles;
+    }
+
+    @Override
+    public PixelBuffer emptyCopy() {
+        return new TiledPixelBuffer(height, width, tileSize);
+    }
+}
@@ -0,0 +1,143 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.FilterCapabilities;
+import pt.ipp.isep.dei.sismd.filters.MaskedFilter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks how to run each image instead of committing to one strategy. The first rows are filtered sequentially
+ * and timed, which gives the filter's cost per pixel on this image at no extra work; the rest of the image then
+ * runs:
+ * <ul>
+ *     <li>sequentially, when it would take less than {@link #PARALLEL_THRESHOLD_NANOS} or there is one core;</li>
+ *     <li>as one row band per core, for point filters, whose cost is the same everywhere;</li>
+ *     <li>on fork/join otherwise, with leaves sized to take about {@link #TARGET_TASK_NANOS} each.</li>
+ * </ul>
+ * The last {@link #HISTORY_SIZE} decisions are kept for auditing, see {@link #decisions()}.
+ */
+public class AdaptiveExecutor implements FilterExecutor {
+
+    public enum Strategy {
+        SEQUENTIAL,
+        ROW_BANDS,
+        FORK_JOIN
+    }
+
+    /**
+     * One call: what was measured and what was chosen.
+     *
+     * @param calibrationRows rows filtered sequentially to measure the cost
+     * @param chunkPixels     pixels per task of the chosen strategy, the rest of the image for SEQUENTIAL
+     * @param elapsedNanos    the whole call, calibration included
+     */
+    public record Decision(int height, int width, int cores, int calibrationRows, double nanosPerPixel,
+                           Strategy strategy, int chunkPixels, long elapsedNanos) {
+    }
+
+    public static final long PARALLEL_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    public static final long TARGET_TASK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    public static final int HISTORY_SIZE = 256;
+
+    private static final int CALIBRATION_PIXELS = 16 * 1024;
+
+    // leaves smaller than this spend more time being scheduled than filtering
+    private static final int MIN_CHUNK_PIXELS = 1024;
+
+    private final Filter filter;
+
+    private final Deque<Decision> decisions = new ArrayDeque<>();
+
+    public AdaptiveExecutor(Filter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public Image apply(Image image) {
+        long start = System.nanoTime();
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        int height = image.height();
+        int width = image.width();
+        int cores = ExecutorPools.parallelism();
+        // the plan prepares the filter (lookup table, displacement map, mask, integral image) so the one-time
+        // setup stays out of the calibration below, which only times filtering
+        ExecutionPlan plan = ExecutionPlan.of(filter, image);
+        Filter planned = plan.filter();
+
+        int calibrationRows = Math.min(height, Math.max(1, CALIBRATION_PIXELS / Math.max(1, width)));
+        long calibrationStart = System.nanoTime();
+        FilterRows.apply(planned, image, output, 0, calibrationRows);
+        double nanosPerPixel = Math.max(0.1, (double) (System.nanoTime() - calibrationStart) / ((long) calibrationRows * width));
+
+        long remainingPixels = (long) (height - calibrationRows) * width;
+        Strategy strategy = choose(filter, nanosPerPixel * remainingPixels, cores);
+        int chunkPixels = (int) Math.min(Integer.MAX_VALUE, remainingPixels);
+        if (remainingPixels > 0) {
+            switch (strategy) {
+                case SEQUENTIAL -> FilterRows.apply(planned, image, output, calibrationRows, height);
+                case ROW_BANDS -> {
+                    chunkPixels = (int) (remainingPixels / cores);
+                    applyRowBands(planned, image, output, calibrationRows, cores);
+                }
+                case FORK_JOIN -> {
+                    long byTime = (long) (TARGET_TASK_NANOS / nanosPerPixel);
+                    // enough leaves for every core to steal a few
+                    long byBalance = Math.max(MIN_CHUNK_PIXELS, remainingPixels / (cores * 8L));
+                    chunkPixels = (int) Math.max(MIN_CHUNK_PIXELS, Math.min(byTime, byBalance));
+                    new ForkJoinExecutor(filter, chunkPixels).applyRows(plan, image, output, calibrationRows, height);
+                }
+            }
+        }
+        record(new Decision(height, width, cores, calibrationRows, nanosPerPixel, strategy, chunkPixels,
+                System.nanoTime() - start));
+        return new Image(output);
+    }
+
+    static Strategy choose(Filter filter, double estimatedNanos, int cores) {
+        if (cores == 1 || estimatedNanos < PARALLEL_THRESHOLD_NANOS) {
+            return Strategy.SEQUENTIAL;
+        }
+        FilterCapabilities capabilities = filter.capabilities();
+        if (capabilities.access() == FilterCapabilities.Access.POINTWISE && !(filter instanceof MaskedFilter)) {
+            return Strategy.ROW_BANDS;
+        }
+        return Strategy.FORK_JOIN;
+    }
+
+    private void applyRowBands(Filter planned, Image image, PixelBuffer output, int startRow, int bands) {
+        int rows = image.height() - startRow;
+        TaskGroup tasks = new TaskGroup(ExecutorPools.threadPool());
+        for (int band = 0; band < bands; band++) {
+            int bandStart = startRow + (int) ((long) rows * band / bands);
+            int bandEnd = startRow + (int) ((long) rows * (band + 1) / bands);
+            if (bandStart < bandEnd) {
+                tasks.submit(() -> FilterRows.apply(planned, image, output, bandStart, bandEnd));
+            }
+        }
+        tasks.await(ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private synchronized void record(Decision decision) {
+        if (decisions.size() == HISTORY_SIZE) {
+            decisions.removeFirst();
+        }
+        decisions.addLast(decision);
+    }
+
+    /**
+     * @return the most recent decisions, oldest first
+     */
+    public synchronized List<Decision> decisions() {
+        return new ArrayList<>(decisions);
+    }
+}
@@ -1,36 +1,45 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public class CompletableFutureExecutorPerLine implements FilterExecutor {
 
     private final Filter filter;
 
+    private final Executor executor;
+
+    /**
+     * Runs on the shared {@link ExecutorPools#forkJoinPool()}.
+     */
     public CompletableFutureExecutorPerLine(Filter filter) {
+        this(filter, ExecutorPools.forkJoinPool());
+    }
+
+    /**
+     * Runs the futures on the caller's executor.
+     */
+    public CompletableFutureExecutorPerLine(Filter filter, Executor executor) {
         this.filter = filter;
+        this.executor = executor;
     }
 
     @Override
     public Image apply(Image image) {
-        final Color[][] pixelMatrix = new Color[image.height()][image.width()];
+        final PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        final Filter planned = ExecutionPlan.of(filter, image).filter();
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[image.height()];
         for (int x = 0; x < image.height(); x++) {
             final int finalX = x;
-            CompletableFuture.runAsync(() -> {
-                for (int y = 0; y < image.width(); y++) {
-                    final Color filteredPixel = filter.apply(finalX, y, image);
-                    pixelMatrix[finalX][y] = filteredPixel;
-                }
-            });
-        }
-        if(!ForkJoinPool.commonPool().awaitQuiescence(100, TimeUnit.SECONDS)){
-            System.out.println("Timeout occurred.");
+            futures[x] = CompletableFuture.runAsync(() -> FilterRows.apply(planned, image, output, finalX, finalX + 1), executor);
         }
-        return new Image(pixelMatrix);
+        CompletableFutures.awaitAll(futures, ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return new Image(output);
     }
 }
@@ -1,37 +1,52 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public class CompletableFutureExecutorPerPixel implements FilterExecutor {
 
     private final Filter filter;
 
+    private final Executor executor;
+
+    /**
+     * Runs on the shared {@link ExecutorPools#forkJoinPool()}.
+     */
     public CompletableFutureExecutorPerPixel(Filter filter) {
+        this(filter, ExecutorPools.forkJoinPool());
+    }
+
+    /**
+     * Runs the futures on the caller's executor.
+     */
+    public CompletableFutureExecutorPerPixel(Filter filter, Executor executor) {
         this.filter = filter;
+        this.executor = executor;
     }
 
     @Override
     public Image apply(Image image) {
-        final Color[][] pixelMatrix = new Color[image.height()][image.width()];
+        final PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        filter.prepare(image);
+        // one future per pixel is still created, but none is kept: completion is counted by the group
+        final TaskGroup tasks = new TaskGroup(task -> CompletableFuture.runAsync(task, executor));
         for (int x = 0; x < image.height(); x++) {
             final int finalX = x;
             for (int y = 0; y < image.width(); y++) {
                 final int finalY = y;
-                CompletableFuture.runAsync(() -> {
-                        final Color filteredPixel = filter.apply(finalX, finalY, image);
-                        pixelMatrix[finalX][finalY] = filteredPixel;
+                tasks.submit(() -> {
+                        final int filteredPixel = filter.applyRgb(finalX, finalY, image);
+                        output.setRgb(finalX, finalY, filteredPixel);
                 });
             }
         }
-        if(!ForkJoinPool.commonPool().awaitQuiescence(100, TimeUnit.SECONDS)){
-            System.out.println("Timeout occurred.");
-        }
-        return new Image(pixelMatrix);
+        tasks.await(ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return new Image(output);
     }
 }
@@ -1,41 +1,71 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public class CompletableFutureExecutorPerSlice implements FilterExecutor {
 
     private final Filter filter;
 
+    private final Executor executor;
+
+    private final Partitioner partitioner;
+
+    /**
+     * Runs on the shared {@link ExecutorPools#forkJoinPool()}.
+     */
     public CompletableFutureExecutorPerSlice(Filter filter) {
+        this(filter, ExecutorPools.forkJoinPool());
+    }
+
+    /**
+     * Runs the futures on the caller's executor.
+     */
+    public CompletableFutureExecutorPerSlice(Filter filter, Executor executor) {
+        this(filter, executor, null);
+    }
+
+    /**
+     * Runs on the shared {@link ExecutorPools#forkJoinPool()}, one future per worker's run of the partitioner's
+     * regions.
+     */
+    public CompletableFutureExecutorPerSlice(Filter filter, Partitioner partitioner) {
+        this(filter, ExecutorPools.forkJoinPool(), partitioner);
+    }
+
+    private CompletableFutureExecutorPerSlice(Filter filter, Executor executor, Partitioner partitioner) {
         this.filter = filter;
+        this.executor = executor;
+        this.partitioner = partitioner;
     }
 
     @Override
     public Image apply(Image image) {
-        final Color[][] pixelMatrix = new Color[image.height()][image.width()];
-        final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-        final int sliceHeight = image.height() / numberOfThreads;
-        for (int i = 0; i < numberOfThreads; i++) {
-            final int sliceStartX = i * sliceHeight;
-            final int sliceEndX = (i == numberOfThreads - 1) ? image.height() : (i + 1) * sliceHeight;
-            CompletableFuture.runAsync(() -> {
-                for (int x = sliceStartX; x < sliceEndX; x++) {
-                    for (int y = 0; y < image.width(); y++) {
-                        final Color filteredPixel = filter.apply(x, y, image);
-                        pixelMatrix[x][y] = filteredPixel;
-                    }
-                }
-            });
+        final PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        final Filter planned = ExecutionPlan.of(filter, image).filter();
+        final int numberOfThreads = ExecutorPools.parallelism();
+        if (partitioner != null) {
+            final CompletableFuture<?>[] futures = Partitioner.assign(partitioner.partition(image.height(), image.width(), numberOfThreads), numberOfThreads)
+                    .stream()
+                    .map(run -> CompletableFuture.runAsync(() -> FilterRows.applyRegions(planned, image, output, run), executor))
+                    .toArray(CompletableFuture<?>[]::new);
+            CompletableFutures.awaitAll(futures, ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return new Image(output);
         }
-        if(!ForkJoinPool.commonPool().awaitQuiescence(100, TimeUnit.SECONDS)){
-            System.out.println("Timeout occurred.");
+        final int[] slices = FilterRows.rowBands(filter, image, numberOfThreads);
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int sliceStartX = slices[i];
+            final int sliceEndX = slices[i + 1];
+            futures[i] = CompletableFuture.runAsync(() -> FilterRows.apply(planned, image, output, sliceStartX, sliceEndX), executor);
         }
-        return new Image(pixelMatrix);
+        CompletableFutures.awaitAll(futures, ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return new Image(output);
     }
 }
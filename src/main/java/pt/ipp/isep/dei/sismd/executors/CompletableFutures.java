@@ -0,0 +1,43 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waiting on the futures one {@code apply} call of a CompletableFuture executor created, and nothing else.
+ */
+final class CompletableFutures {
+
+    private CompletableFutures() {
+    }
+
+    /**
+     * Waits for all futures, cancelling the ones still pending if any fails or the timeout expires.
+     *
+     * @throws FilterExecutionException if a future failed, the wait timed out or was interrupted
+     */
+    static void awaitAll(CompletableFuture<?>[] futures, long timeout, TimeUnit unit) {
+        try {
+            CompletableFuture.allOf(futures).get(timeout, unit);
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            throw new FilterExecutionException("Filter task failed", e.getCause());
+        } catch (TimeoutException | CancellationException e) {
+            cancelAll(futures);
+            throw new FilterExecutionException("Timed out after " + timeout + " " + unit.name().toLowerCase(), e);
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            throw new FilterExecutionException("Interrupted while waiting for tasks", e);
+        }
+    }
+
+    private static void cancelAll(CompletableFuture<?>[] futures) {
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+}
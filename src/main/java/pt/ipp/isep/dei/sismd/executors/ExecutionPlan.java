@@ -0,0 +1,61 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.FilterCapabilities;
+import pt.ipp.isep.dei.sismd.filters.FusedFilter;
+import pt.ipp.isep.dei.sismd.filters.LookupTable;
+import pt.ipp.isep.dei.sismd.filters.LookupTableFilter;
+
+import java.util.Optional;
+
+/**
+ * How an executor should run a filter over an image, derived from the filter's {@link FilterCapabilities}:
+ * <ul>
+ *     <li>fused point filters whose tables compose run as one {@link LookupTableFilter};</li>
+ *     <li>neighbourhood filters are cut into row bands at least a few halos tall, since each region re-reads
+ *     its halo, and never into column strips;</li>
+ *     <li>chunks hold about {@link #CHUNK_WORK} units of work, so cheap filters get big chunks and expensive or
+ *     irregular ones small chunks that balance better.</li>
+ * </ul>
+ *
+ * @param filter        the filter to run, possibly compiled
+ * @param capabilities  the original filter's capabilities
+ * @param minRows       the fewest rows a region should have
+ * @param chunkPixels   the pixels per chunk (task) executors should aim for
+ * @param splitColumns  whether regions may also be split by columns
+ */
+record ExecutionPlan(Filter filter, FilterCapabilities capabilities, int minRows, int chunkPixels,
+                     boolean splitColumns) {
+
+    static final int CHUNK_WORK = 64 * 1024;
+
+    // regions of a neighbourhood filter span at least this many halos, so re-reading them stays cheap
+    private static final int HALOS_PER_REGION = 4;
+
+    static ExecutionPlan of(Filter filter, Image image) {
+        filter.prepare(image);
+        FilterCapabilities capabilities = filter.capabilities();
+        Filter planned = filter;
+        if (filter instanceof FusedFilter fused && capabilities.fusable()) {
+            Optional<LookupTable> table = fused.lookupTable();
+            if (table.isPresent()) {
+                planned = new LookupTableFilter(fused, table.get());
+            }
+        }
+        int cost = Math.max(1, capabilities.costPerPixel());
+        // gathers read unpredictably, so their chunks are kept smaller to even out stragglers
+        int work = capabilities.access() == FilterCapabilities.Access.GATHER ? CHUNK_WORK / 2 : CHUNK_WORK;
+        int chunkPixels = Math.max(work / cost, image.width());
+        int minRows = Math.max(1, HALOS_PER_REGION * capabilities.halo());
+        boolean splitColumns = capabilities.access() != FilterCapabilities.Access.NEIGHBOURHOOD;
+        return new ExecutionPlan(planned, capabilities, Math.min(minRows, image.height()), chunkPixels, splitColumns);
+    }
+
+    /**
+     * @return the rows per chunk for executors that hand out whole rows
+     */
+    int chunkRows(Image image) {
+        return Math.max(minRows, Math.min(image.height(), chunkPixels / Math.max(1, image.width())));
+    }
+}
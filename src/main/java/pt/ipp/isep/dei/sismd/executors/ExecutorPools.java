@@ -0,0 +1,101 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The thread pools executors run on unless they are given their own. Created on first use with
+ * {@link #parallelism()} threads, which defaults to the {@link TuningProfile} or else the number of cores and can be
+ * set with the {@code sismd.threads} system property or {@link #setParallelism(int)} before any executor runs. Their threads
+ * are daemons, so they never keep the JVM alive.
+ */
+public final class ExecutorPools {
+
+    /**
+     * How long an executor waits for the tasks of one image: a generous bound, only there so a stuck filter
+     * surfaces as an error.
+     */
+    public static final long TASK_TIMEOUT_SECONDS = 100;
+
+    // resolved on first use rather than in the static initializer, so a bad profile cannot break class loading
+    private static int parallelism;
+
+    private static ExecutorService threadPool;
+
+    private static ForkJoinPool forkJoinPool;
+
+    private static Semaphore cpuPermits;
+
+    private ExecutorPools() {
+    }
+
+    public static synchronized int parallelism() {
+        if (parallelism == 0) {
+            parallelism = Math.max(1, Integer.getInteger("sismd.threads",
+                    TuningProfile.current().parallelism().orElse(Runtime.getRuntime().availableProcessors())));
+        }
+        return parallelism;
+    }
+
+    /**
+     * @throws IllegalStateException once a shared pool has been created
+     */
+    public static synchronized void setParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + threads);
+        }
+        if (threadPool != null || forkJoinPool != null || cpuPermits != null) {
+            throw new IllegalStateException("Shared pools already running with " + parallelism() + " threads");
+        }
+        parallelism = threads;
+    }
+
+    /**
+     * @return the fixed-size pool shared by the {@code ExecutorsExecutor*} executors.
+     */
+    public static synchronized ExecutorService threadPool() {
+        if (threadPool == null) {
+            threadPool = Executors.newFixedThreadPool(parallelism(), daemonThreads("sismd-worker-"));
+        }
+        return threadPool;
+    }
+
+    /**
+     * @return the fork/join pool shared by {@link ForkJoinExecutor}.
+     */
+    public static synchronized ForkJoinPool forkJoinPool() {
+        if (forkJoinPool == null) {
+            forkJoinPool = new ForkJoinPool(parallelism(), pool -> {
+                var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("sismd-forkjoin-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return forkJoinPool;
+    }
+
+    /**
+     * @return the permits shared by {@link VirtualThreadExecutor}s without a concurrency of their own, one per
+     * {@link #parallelism()} thread.
+     */
+    public static synchronized Semaphore cpuPermits() {
+        if (cpuPermits == null) {
+            cpuPermits = new Semaphore(parallelism());
+        }
+        return cpuPermits;
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,41 +1,71 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
-import java.util.concurrent.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class ExecutorsExecutorPerLine implements FilterExecutor {
 
     private final ExecutorService threadPool;
 
+    private final boolean ownsThreadPool;
+
     private final Filter filter;
 
+    private volatile boolean closed;
+
+    /**
+     * Runs on the shared {@link ExecutorPools#threadPool()}.
+     */
     public ExecutorsExecutorPerLine(Filter filter) {
-        this.threadPool = Executors.newCachedThreadPool();
+        this(filter, ExecutorPools.threadPool(), false);
+    }
+
+    /**
+     * Runs on the caller's pool, which is left running by {@link #close()}.
+     */
+    public ExecutorsExecutorPerLine(Filter filter, ExecutorService threadPool) {
+        this(filter, threadPool, false);
+    }
+
+    /**
+     * Runs on a pool of its own, shut down by {@link #close()}.
+     */
+    public ExecutorsExecutorPerLine(Filter filter, int numberOfThreads) {
+        this(filter, Executors.newFixedThreadPool(numberOfThreads, ExecutorPools.daemonThreads("per-line-")), true);
+    }
+
+    private ExecutorsExecutorPerLine(Filter filter, ExecutorService threadPool, boolean ownsThreadPool) {
+        this.threadPool = threadPool;
+        this.ownsThreadPool = ownsThreadPool;
         this.filter = filter;
     }
 
     @Override
     public Image apply(Image image) {
-        Color[][] pixelMatrix = new Color[image.height()][image.width()];
+        if (closed) throw new IllegalStateException("Executor is closed");
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        final Filter planned = ExecutionPlan.of(filter, image).filter();
+        TaskGroup tasks = new TaskGroup(threadPool);
         for (int x = 0; x < image.height(); x++) {
             final int finalX = x;
-            threadPool.submit(() -> {
-                for (int y = 0; y < image.width() ; y++) {
-                    final Color filteredPixel = filter.apply(finalX,y,image);
-                    pixelMatrix[finalX][y] = filteredPixel ;
-                }
-            });
+            tasks.submit(() -> FilterRows.apply(planned, image, output, finalX, finalX + 1));
+        }
+        tasks.await(ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        return new Image(output);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsThreadPool) {
+            threadPool.shutdown();
         }
-        threadPool.shutdown();
-        try {
-            if (!threadPool.awaitTermination(100, TimeUnit.SECONDS)){
-                System.out.println("Timeout occurred.");
-            }
-        } catch (InterruptedException ignored) { }
-
-        return new Image(pixelMatrix);
     }
 }
@@ -1,7 +1,8 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
 import java.util.concurrent.ExecutorService;
@@ -12,33 +13,65 @@ public class ExecutorsExecutorPerPixel implements FilterExecutor {
 
     private final ExecutorService threadPool;
 
+    private final boolean ownsThreadPool;
+
     private final Filter filter;
 
+    private volatile boolean closed;
+
+    /**
+     * Runs on the shared {@link ExecutorPools#threadPool()}.
+     */
     public ExecutorsExecutorPerPixel(Filter filter) {
-        this.threadPool = Executors.newCachedThreadPool();
+        this(filter, ExecutorPools.threadPool(), false);
+    }
+
+    /**
+     * Runs on the caller's pool, which is left running by {@link #close()}.
+     */
+    public ExecutorsExecutorPerPixel(Filter filter, ExecutorService threadPool) {
+        this(filter, threadPool, false);
+    }
+
+    /**
+     * Runs on a pool of its own, shut down by {@link #close()}.
+     */
+    public ExecutorsExecutorPerPixel(Filter filter, int numberOfThreads) {
+        this(filter, Executors.newFixedThreadPool(numberOfThreads, ExecutorPools.daemonThreads("per-pixel-")), true);
+    }
+
+    private ExecutorsExecutorPerPixel(Filter filter, ExecutorService threadPool, boolean ownsThreadPool) {
+        this.threadPool = threadPool;
+        this.ownsThreadPool = ownsThreadPool;
         this.filter = filter;
     }
 
     @Override
     public Image apply(Image image) {
-        Color[][] pixelMatrix = new Color[image.height()][image.width()];
+        if (closed) throw new IllegalStateException("Executor is closed");
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        filter.prepare(image);
+        TaskGroup tasks = new TaskGroup(threadPool);
         for (int x = 0; x < image.height(); x++) {
             final int finalX = x;
             for (int y = 0; y < image.width() ; y++) {
                 final int finalY = y;
-                threadPool.submit(() -> {
-                        final Color filteredPixel = filter.apply(finalX,finalY,image);
-                        pixelMatrix[finalX][finalY] = filteredPixel ;
+                tasks.submit(() -> {
+                        final int filteredPixel = filter.applyRgb(finalX,finalY,image);
+                        output.setRgb(finalX, finalY, filteredPixel);
                 });
             }
         }
-        threadPool.shutdown();
-        try {
-            if (!threadPool.awaitTermination(100, TimeUnit.SECONDS)){
-                System.out.println("Timeout occurred.");
-            }
-        } catch (InterruptedException ignored) { }
+        tasks.await(ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        return new Image(output);
+    }
 
-        return new Image(pixelMatrix);
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsThreadPool) {
+            threadPool.shutdown();
+        }
     }
 }
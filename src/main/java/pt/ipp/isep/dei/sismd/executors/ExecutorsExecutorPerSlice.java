@@ -1,9 +1,11 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -12,37 +14,84 @@ public class ExecutorsExecutorPerSlice implements FilterExecutor {
 
     private final ExecutorService threadPool;
 
+    private final boolean ownsThreadPool;
+
+    private final int numberOfThreads;
+
     private final Filter filter;
 
+    private final Partitioner partitioner;
+
+    private volatile boolean closed;
+
+    /**
+     * Runs on the shared {@link ExecutorPools#threadPool()}.
+     */
     public ExecutorsExecutorPerSlice(Filter filter) {
-        this.threadPool = Executors.newCachedThreadPool();
+        this(filter, ExecutorPools.threadPool(), false, ExecutorPools.parallelism(), null);
+    }
+
+    /**
+     * Runs on the shared {@link ExecutorPools#threadPool()}, one task per worker's run of the partitioner's regions.
+     */
+    public ExecutorsExecutorPerSlice(Filter filter, Partitioner partitioner) {
+        this(filter, ExecutorPools.threadPool(), false, ExecutorPools.parallelism(), partitioner);
+    }
+
+    /**
+     * Runs {@link ExecutorPools#parallelism()} slices on the caller's pool, which is left running by {@link #close()}.
+     */
+    public ExecutorsExecutorPerSlice(Filter filter, ExecutorService threadPool) {
+        this(filter, threadPool, false, ExecutorPools.parallelism(), null);
+    }
+
+    /**
+     * Runs numberOfThreads slices on a pool of its own, shut down by {@link #close()}.
+     */
+    public ExecutorsExecutorPerSlice(Filter filter, int numberOfThreads) {
+        this(filter, Executors.newFixedThreadPool(numberOfThreads, ExecutorPools.daemonThreads("per-slice-")), true,
+                numberOfThreads, null);
+    }
+
+    private ExecutorsExecutorPerSlice(Filter filter, ExecutorService threadPool, boolean ownsThreadPool,
+                                      int numberOfThreads, Partitioner partitioner) {
+        this.threadPool = threadPool;
+        this.ownsThreadPool = ownsThreadPool;
+        this.numberOfThreads = numberOfThreads;
         this.filter = filter;
+        this.partitioner = partitioner;
     }
 
     @Override
     public Image apply(Image image) {
-        Color[][] pixelMatrix = new Color[image.height()][image.width()];
-        final int numberOfThreads = Runtime.getRuntime().availableProcessors();
-        final int sliceHeight = image.height() / numberOfThreads;
+        if (closed) throw new IllegalStateException("Executor is closed");
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        final Filter planned = ExecutionPlan.of(filter, image).filter();
+        if (partitioner != null) {
+            TaskGroup tasks = new TaskGroup(threadPool);
+            for (List<Partitioner.Region> run : Partitioner.assign(partitioner.partition(image.height(), image.width(), numberOfThreads), numberOfThreads)) {
+                tasks.submit(() -> FilterRows.applyRegions(planned, image, output, run));
+            }
+            tasks.await(ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return new Image(output);
+        }
+        final int[] slices = FilterRows.rowBands(filter, image, numberOfThreads);
+        TaskGroup tasks = new TaskGroup(threadPool);
         for (int i = 0; i < numberOfThreads; i++) {
-            final int sliceStartX = i * sliceHeight;
-            final int sliceEndX = (i == numberOfThreads - 1) ? image.height() : (i + 1) * sliceHeight;
-            threadPool.submit(() -> {
-                for (int x = sliceStartX; x < sliceEndX; x++) {
-                    for (int y = 0; y < image.width(); y++) {
-                        final Color filteredPixel = filter.apply(x, y, image);
-                        pixelMatrix[x][y] = filteredPixel;
-                    }
-                }
-            });
+            final int sliceStartX = slices[i];
+            final int sliceEndX = slices[i + 1];
+            tasks.submit(() -> FilterRows.apply(planned, image, output, sliceStartX, sliceEndX));
         }
-        threadPool.shutdown();
-        try {
-            if (!threadPool.awaitTermination(100, TimeUnit.SECONDS)){
-                System.out.println("Timeout occurred.");
-            }
-        } catch (InterruptedException ignored) { }
+        tasks.await(ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
-        return new Image(pixelMatrix);
+        return new Image(output);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsThreadPool) {
+            threadPool.shutdown();
+        }
     }
 }
@@ -0,0 +1,16 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+/**
+ * Thrown by an executor when filtering an image failed or did not finish in time; the partial output is
+ * discarded.
+ */
+public class FilterExecutionException extends RuntimeException {
+
+    public FilterExecutionException(String message) {
+        super(message);
+    }
+
+    public FilterExecutionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
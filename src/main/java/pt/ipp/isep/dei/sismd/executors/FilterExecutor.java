@@ -2,6 +2,14 @@ package pt.ipp.isep.dei.sismd.executors;
 
 import pt.ipp.isep.dei.sismd.domain.Image;
 
-public interface FilterExecutor {
+/**
+ * Applies a filter to whole images. Executors can be reused for any number of images; close them once done to
+ * release the threads they own (executors on the shared {@link ExecutorPools} own none).
+ */
+public interface FilterExecutor extends AutoCloseable {
     Image apply(Image image);
+
+    @Override
+    default void close() {
+    }
 }
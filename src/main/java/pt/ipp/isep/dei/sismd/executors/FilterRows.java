@@ -0,0 +1,100 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
+import pt.ipp.isep.dei.sismd.domain.PlanarPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.TiledPixelBuffer;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.LookupTableFilter;
+import pt.ipp.isep.dei.sismd.filters.MaskedFilter;
+import pt.ipp.isep.dei.sismd.filters.PixelMask;
+import pt.ipp.isep.dei.sismd.filters.PlanarFilter;
+import pt.ipp.isep.dei.sismd.filters.RegionFilter;
+
+import java.util.List;
+
+/**
+ * Row-range and region work shared by the executors: whole regions for {@link RegionFilter}s, otherwise one
+ * {@link Filter#applySpan} call per row segment, or the filter's layout-specific path when both the source and
+ * the output use that layout.
+ */
+final class FilterRows {
+
+    private FilterRows() {
+    }
+
+    static void apply(Filter filter, Image source, PixelBuffer output, int startRow, int endRow) {
+        if (filter instanceof LookupTableFilter lookupTableFilter) {
+            lookupTableFilter.applyRows(source, output, startRow, endRow);
+            return;
+        }
+        if (filter instanceof PlanarFilter planarFilter
+                && source.pixels() instanceof PlanarPixelBuffer planarSource
+                && output instanceof PlanarPixelBuffer planarOutput) {
+            planarFilter.applyRows(planarSource, planarOutput, startRow, endRow);
+            return;
+        }
+        applyRegion(filter, source, output, startRow, endRow, 0, source.width());
+    }
+
+    static void applyRegion(Filter filter, Image source, PixelBuffer output,
+                            int startRow, int endRow, int startCol, int endCol) {
+        if (filter instanceof RegionFilter regionFilter) {
+            regionFilter.applyRegion(source, output, startRow, endRow, startCol, endCol);
+            return;
+        }
+        for (int i = startRow; i < endRow; i++) {
+            filter.applySpan(i, startCol, endCol, source, output);
+        }
+    }
+
+    /**
+     * Splits the rows of image into bands for parallel work: same-height bands (the last one takes the
+     * remainder), or for a {@link MaskedFilter} bands holding about the same number of matches, so threads are not
+     * left copying unchanged rows while one does all the filtering.
+     *
+     * @return bands + 1 row boundaries
+     */
+    static int[] rowBands(Filter filter, Image image, int bands) {
+        if (filter instanceof MaskedFilter maskedFilter) {
+            PixelMask mask = maskedFilter.mask(image).orElse(null);
+            if (mask != null) {
+                return mask.rowBands(bands, maskedFilter.matchCost());
+            }
+        }
+        int[] boundaries = new int[bands + 1];
+        int bandHeight = image.height() / bands;
+        for (int band = 0; band < bands; band++) {
+            boundaries[band] = band * bandHeight;
+        }
+        boundaries[bands] = image.height();
+        return boundaries;
+    }
+
+    /**
+     * Full-width regions keep the row paths of {@link #apply}.
+     */
+    static void apply(Filter filter, Image source, PixelBuffer output, Partitioner.Region region) {
+        if (region.startCol() == 0 && region.endCol() == source.width()) {
+            apply(filter, source, output, region.startRow(), region.endRow());
+        } else {
+            applyRegion(filter, source, output, region.startRow(), region.endRow(), region.startCol(), region.endCol());
+        }
+    }
+
+    static void applyRegions(Filter filter, Image source, PixelBuffer output, List<Partitioner.Region> regions) {
+        for (Partitioner.Region region : regions) {
+            apply(filter, source, output, region);
+        }
+    }
+
+    /**
+     * Walks a tiled source tile by tile, in memory order, so neighbourhood reads stay in cache.
+     */
+    static void applyTiles(Filter filter, TiledPixelBuffer source, Image image, PixelBuffer output) {
+        for (TiledPixelBuffer.Tile tile : source.tiles()) {
+            applyRegion(filter, image, output, tile.startRow(), tile.endRow(), tile.startCol(), tile.endCol());
+        }
+    }
+}
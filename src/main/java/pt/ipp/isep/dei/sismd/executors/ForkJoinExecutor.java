@@ -1,76 +1,232 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.MaskedFilter;
+import pt.ipp.isep.dei.sismd.filters.PixelMask;
 
+import java.util.List;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.RecursiveAction;
 
 public class ForkJoinExecutor implements FilterExecutor {
 
+    /**
+     * How a region too big for one task is divided.
+     */
+    public enum Splitting {
+        /** Four quadrants at a time, halving rows and columns together. */
+        QUADRANTS,
+        /**
+         * Two row bands at a time, which stay contiguous in memory, and two column halves only once a band is down
+         * to {@link #MIN_BAND_ROWS} rows.
+         */
+        ROW_BANDS
+    }
+
+    public static final int MIN_BAND_ROWS = 4;
+
+    public static final int TASKS_PER_THREAD = 4;
+
+    // threshold from the TuningProfile, or else picked from the filter's capabilities, see ExecutionPlan
+    private static final int AUTOMATIC = -1;
+
     private final Filter filterAlgorithm;
 
     private final int threshold;
 
+    private final Splitting splitting;
+
+    private final ForkJoinPool pool;
+
+    private final boolean ownsPool;
+
+    private final Partitioner partitioner;
+
+    private volatile boolean closed;
+
+    /**
+     * Runs on the shared {@link ExecutorPools#forkJoinPool()}.
+     */
     public ForkJoinExecutor(Filter filterAlgorithm, int threshold) {
-        this.filterAlgorithm = filterAlgorithm;
-        this.threshold = threshold;
+        this(filterAlgorithm, threshold, Splitting.QUADRANTS);
+    }
+
+    /**
+     * Runs on the shared {@link ExecutorPools#forkJoinPool()}.
+     */
+    public ForkJoinExecutor(Filter filterAlgorithm, int threshold, Splitting splitting) {
+        this(filterAlgorithm, threshold, splitting, ExecutorPools.forkJoinPool(), false);
     }
 
     public ForkJoinExecutor(Filter filterAlgorithm) {
+        this(filterAlgorithm, AUTOMATIC);
+    }
+
+    /**
+     * Runs on the caller's pool, which is left running by {@link #close()}.
+     */
+    public ForkJoinExecutor(Filter filterAlgorithm, ForkJoinPool pool) {
+        this(filterAlgorithm, AUTOMATIC, Splitting.QUADRANTS, pool, false);
+    }
+
+    /**
+     * Runs on the shared {@link ExecutorPools#forkJoinPool()}, one task per region of the partitioner, cut into
+     * {@link #TASKS_PER_THREAD} regions per thread by band partitioners and not split any further.
+     */
+    public ForkJoinExecutor(Filter filterAlgorithm, Partitioner partitioner) {
+        this(filterAlgorithm, AUTOMATIC, Splitting.QUADRANTS, ExecutorPools.forkJoinPool(), false, partitioner);
+    }
+
+    /**
+     * Runs on a pool of its own with the given parallelism, shut down by {@link #close()}.
+     */
+    public ForkJoinExecutor(Filter filterAlgorithm, int threshold, int parallelism) {
+        this(filterAlgorithm, threshold, Splitting.QUADRANTS, new ForkJoinPool(parallelism), true);
+    }
+
+    private ForkJoinExecutor(Filter filterAlgorithm, int threshold, Splitting splitting, ForkJoinPool pool,
+                             boolean ownsPool) {
+        this(filterAlgorithm, threshold, splitting, pool, ownsPool, null);
+    }
+
+    private ForkJoinExecutor(Filter filterAlgorithm, int threshold, Splitting splitting, ForkJoinPool pool,
+                             boolean ownsPool, Partitioner partitioner) {
         this.filterAlgorithm = filterAlgorithm;
-        this.threshold = 10_000;
+        this.threshold = threshold;
+        this.splitting = splitting;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.partitioner = partitioner;
     }
 
     @Override
     public Image apply(Image image) {
-        Color[][] pixelMatrix = new Color[image.height()][image.width()];
-        ForkJoinPool pool = new ForkJoinPool();
-        pool.invoke(new FilterTask(0, image.height(), 0, image.width(), pixelMatrix, image, filterAlgorithm));
-        pool.shutdown();
-        return new Image(pixelMatrix);
+        if (closed) throw new IllegalStateException("Executor is closed");
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        if (partitioner != null) {
+            applyPartitions(image, output);
+        } else {
+            applyRows(image, output, 0, image.height());
+        }
+        return new Image(output);
+    }
+
+    private void applyPartitions(Image image, PixelBuffer output) {
+        ExecutionPlan plan = ExecutionPlan.of(filterAlgorithm, image);
+        List<FilterTask> tasks = partitioner.partition(image.height(), image.width(), pool.getParallelism() * TASKS_PER_THREAD)
+                .stream()
+                .map(region -> new FilterTask(region.startRow(), region.endRow(), region.startCol(), region.endCol(),
+                        output, image, plan, Integer.MAX_VALUE, null, splitting))
+                .toList();
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * Filters rows [startRow, endRow) of image into output, for executors that only hand part of an image over.
+     */
+    void applyRows(Image image, PixelBuffer output, int startRow, int endRow) {
+        applyRows(ExecutionPlan.of(filterAlgorithm, image), image, output, startRow, endRow);
+    }
+
+    /**
+     * Same as {@link #applyRows(Image, PixelBuffer, int, int)}, with the plan the caller already made for image.
+     */
+    void applyRows(ExecutionPlan plan, Image image, PixelBuffer output, int startRow, int endRow) {
+        PixelMask mask = filterAlgorithm instanceof MaskedFilter maskedFilter ? maskedFilter.mask(image).orElse(null) : null;
+        int leafPixels = threshold == AUTOMATIC
+                ? TuningProfile.current().threshold(filterAlgorithm, image).orElse(plan.chunkPixels())
+                : threshold;
+        pool.invoke(new FilterTask(startRow, endRow, 0, image.width(), output, image, plan, leafPixels, mask, splitting));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsPool) {
+            pool.shutdown();
+        }
     }
 
-    private class FilterTask extends RecursiveAction {
+    private static class FilterTask extends RecursiveAction {
         private final int startRow;
         private final int endRow;
         private final int startCol;
         private final int endCol;
-        private final Color[][] sharedOutput;
+        private final PixelBuffer sharedOutput;
         private final Image imageToProcess;
-        private final Filter filter;
+        private final ExecutionPlan plan;
+        private final int leafPixels;
+        private final PixelMask mask;
+        private final Splitting splitting;
 
-        public FilterTask(int startRow, int endRow, int startCol, int endCol,
-                          Color[][] sharedOutput, Image imageToProcess, Filter filter) {
+        public FilterTask(int startRow, int endRow, int startCol, int endCol, PixelBuffer sharedOutput,
+                          Image imageToProcess, ExecutionPlan plan, int leafPixels, PixelMask mask,
+                          Splitting splitting) {
             this.startRow = startRow;
             this.endRow = endRow;
             this.startCol = startCol;
             this.endCol = endCol;
             this.sharedOutput = sharedOutput;
             this.imageToProcess = imageToProcess;
-            this.filter = filter;
+            this.plan = plan;
+            this.leafPixels = leafPixels;
+            this.mask = mask;
+            this.splitting = splitting;
         }
 
         @Override
         protected void compute() {
-            if ((endRow - startRow) * (endCol - startCol) <= threshold) {
-                for (int i = startRow; i < endRow; i++) {
-                    for (int j = startCol; j < endCol; j++) {
-                        sharedOutput[i][j] = filter.apply(i, j, imageToProcess);
-                    }
+            int minRows = splitting == Splitting.ROW_BANDS ? Math.max(MIN_BAND_ROWS, plan.minRows()) : plan.minRows();
+            boolean splitRows = endRow - startRow >= 2 * minRows;
+            boolean splitColumns = plan.splitColumns() && endCol - startCol >= 2;
+            // regions a masked filter leaves unchanged are a plain copy, not worth splitting
+            if ((endRow - startRow) * (endCol - startCol) <= leafPixels
+                    || (!splitRows && !splitColumns)
+                    || (mask != null && !mask.anyIn(startRow, endRow, startCol, endCol))) {
+                FilterRows.applyRegion(plan.filter(), imageToProcess, sharedOutput, startRow, endRow, startCol, endCol);
+            } else if (splitting == Splitting.ROW_BANDS) {
+                if (splitRows) {
+                    int midRow = (startRow + endRow) / 2;
+                    halves(task(startRow, midRow, startCol, endCol), task(midRow, endRow, startCol, endCol));
+                } else {
+                    int midCol = (startCol + endCol) / 2;
+                    halves(task(startRow, endRow, startCol, midCol), task(startRow, endRow, midCol, endCol));
                 }
-            } else {
+            } else if (splitRows && splitColumns) {
                 int midRow = (startRow + endRow) / 2;
                 int midCol = (startCol + endCol) / 2;
 
                 invokeAll(
-                        new FilterTask(startRow, midRow, startCol, midCol, sharedOutput, imageToProcess, filter),
-                        new FilterTask(startRow, midRow, midCol, endCol, sharedOutput, imageToProcess, filter),
-                        new FilterTask(midRow, endRow, startCol, midCol, sharedOutput, imageToProcess, filter),
-                        new FilterTask(midRow, endRow, midCol, endCol, sharedOutput, imageToProcess, filter)
+                        task(startRow, midRow, startCol, midCol),
+                        task(startRow, midRow, midCol, endCol),
+                        task(midRow, endRow, startCol, midCol),
+                        task(midRow, endRow, midCol, endCol)
                 );
+            } else if (splitRows) {
+                int midRow = (startRow + endRow) / 2;
+                invokeAll(task(startRow, midRow, startCol, endCol), task(midRow, endRow, startCol, endCol));
+            } else {
+                int midCol = (startCol + endCol) / 2;
+                invokeAll(task(startRow, endRow, startCol, midCol), task(startRow, endRow, midCol, endCol));
             }
         }
+
+        /**
+         * Computes the first half on this thread while the second waits to be stolen.
+         */
+        private static void halves(FilterTask first, FilterTask second) {
+            second.fork();
+            first.compute();
+            second.join();
+        }
+
+        private FilterTask task(int startRow, int endRow, int startCol, int endCol) {
+            return new FilterTask(startRow, endRow, startCol, endCol, sharedOutput, imageToProcess, plan, leafPixels,
+                    mask, splitting);
+        }
     }
 }
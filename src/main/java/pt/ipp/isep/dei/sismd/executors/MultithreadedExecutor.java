@@ -1,7 +1,8 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
 import java.util.ArrayList;
@@ -9,24 +10,54 @@ import java.util.List;
 
 public class MultithreadedExecutor implements FilterExecutor {
 
+    private static final int AUTOMATIC = -1;
+
     private final int numberOfThreads;
 
     private Filter filterAlgorithm;
 
+    private final Partitioner partitioner;
+
     public MultithreadedExecutor(int numberOfThreads, Filter filterAlgorithm) {
+        this(numberOfThreads, filterAlgorithm, null);
+    }
+
+    /**
+     * Each thread filters its run of the partitioner's regions, instead of the column strips or row bands picked
+     * from the filter's capabilities.
+     */
+    public MultithreadedExecutor(int numberOfThreads, Filter filterAlgorithm, Partitioner partitioner) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed, got " + numberOfThreads);
+        }
         this.numberOfThreads = numberOfThreads;
         this.filterAlgorithm = filterAlgorithm;
+        this.partitioner = partitioner;
     }
 
+    /**
+     * Uses the thread count the {@link TuningProfile} has for the filter and image, or else all cores but one.
+     */
     public MultithreadedExecutor(Filter filterAlgorithm) {
-        this(Runtime.getRuntime().availableProcessors()-1, filterAlgorithm);
+        this.numberOfThreads = AUTOMATIC;
+        this.filterAlgorithm = filterAlgorithm;
+        this.partitioner = null;
     }
 
     @Override
     public Image apply(Image image) {
-        Color[][] pixelMatrix = new Color[image.height()][image.width()];
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
         ThreadGroup group = new ThreadGroup("MultithreadedBlurFilter");
-        List<Thread> threads = createThreads(group, image, pixelMatrix);
+        ExecutionPlan plan = ExecutionPlan.of(filterAlgorithm, image);
+        int numberOfThreads = this.numberOfThreads != AUTOMATIC ? this.numberOfThreads
+                // one core is left to the caller, but single-core machines still get a worker
+                : TuningProfile.current().threads(filterAlgorithm, image)
+                        .orElse(Math.max(1, Runtime.getRuntime().availableProcessors()-1));
+        List<Thread> threads = partitioner != null
+                ? createPartitionThreads(group, image, output, plan.filter(), numberOfThreads)
+                : plan.splitColumns()
+                ? createThreads(group, image, output, plan.filter(), numberOfThreads)
+                : createRowThreads(group, image, output, plan.filter(), numberOfThreads);
         threads.forEach(Thread::start);
         while (!threads.isEmpty()) {
             try {
@@ -38,22 +69,26 @@ public class MultithreadedExecutor implements FilterExecutor {
                 System.out.println("Continuing waiting...");
             }
         }
-        return new Image(pixelMatrix);
+        return new Image(output);
     }
 
     private class AlgorithmRunner implements Runnable {
 
+        private final int lowerHeightBound;
+        private final int higherHeightBound;
         private final int lowerWidthBound;
         private final int higherWidthBound;
 
-        private final Color[][] sharedOutput;
+        private final PixelBuffer sharedOutput;
 
         private final Image imageToProcess;
 
         private final Filter filter;
 
-        public AlgorithmRunner(int lowerWidthBound, int higherWidthBound,
-                               Color[][] sharedOutput, Image imageToProcess, Filter filter) {
+        public AlgorithmRunner(int lowerHeightBound, int higherHeightBound, int lowerWidthBound, int higherWidthBound,
+                               PixelBuffer sharedOutput, Image imageToProcess, Filter filter) {
+            this.lowerHeightBound = lowerHeightBound;
+            this.higherHeightBound = higherHeightBound;
             this.lowerWidthBound = lowerWidthBound;
             this.higherWidthBound = higherWidthBound;
             this.sharedOutput = sharedOutput;
@@ -63,17 +98,16 @@ public class MultithreadedExecutor implements FilterExecutor {
 
         @Override
         public void run() {
-            for (int i = 0; i < imageToProcess.height(); i++) {
-                for (int j = lowerWidthBound; j < higherWidthBound; j++) {
-                    sharedOutput[i][j] = this.filter.apply(i, j,imageToProcess);
-                }
-            }
+            FilterRows.applyRegion(this.filter, imageToProcess, sharedOutput,
+                    lowerHeightBound, higherHeightBound, lowerWidthBound, higherWidthBound);
         }
     }
 
     private List<Thread> createThreads(ThreadGroup localGroup,
                                        Image image,
-                                       Color[][] sharedMatrix) {
+                                       PixelBuffer sharedMatrix,
+                                       Filter filter,
+                                       int numberOfThreads) {
         List<Thread> result = new ArrayList<>(numberOfThreads);
         int range = image.width() / numberOfThreads;
 
@@ -82,12 +116,42 @@ public class MultithreadedExecutor implements FilterExecutor {
 
         for (int i = 0; i < numberOfThreads; i++) {
             if (i==numberOfThreads-1) higher= image.width();
-            result.add(new Thread(localGroup, new AlgorithmRunner(lower, higher, sharedMatrix, image,filterAlgorithm)));
+            result.add(new Thread(localGroup, new AlgorithmRunner(0, image.height(), lower, higher, sharedMatrix, image, filter)));
             lower = higher;
             higher += range;
         }
         return result;
     }
 
+    private List<Thread> createPartitionThreads(ThreadGroup localGroup,
+                                                Image image,
+                                                PixelBuffer sharedMatrix,
+                                                Filter filter,
+                                                int numberOfThreads) {
+        List<Thread> result = new ArrayList<>(numberOfThreads);
+        List<Partitioner.Region> regions = partitioner.partition(image.height(), image.width(), numberOfThreads);
+        for (List<Partitioner.Region> run : Partitioner.assign(regions, numberOfThreads)) {
+            result.add(new Thread(localGroup, () -> FilterRows.applyRegions(filter, image, sharedMatrix, run)));
+        }
+        return result;
+    }
+
+    /**
+     * Row bands instead of column strips, for filters reading a neighbourhood: each band then re-reads its halo
+     * only above and below.
+     */
+    private List<Thread> createRowThreads(ThreadGroup localGroup,
+                                          Image image,
+                                          PixelBuffer sharedMatrix,
+                                          Filter filter,
+                                          int numberOfThreads) {
+        List<Thread> result = new ArrayList<>(numberOfThreads);
+        int[] bands = FilterRows.rowBands(filterAlgorithm, image, numberOfThreads);
+        for (int i = 0; i < numberOfThreads; i++) {
+            result.add(new Thread(localGroup, new AlgorithmRunner(bands[i], bands[i + 1], 0, image.width(), sharedMatrix, image, filter)));
+        }
+        return result;
+    }
+
 
 }
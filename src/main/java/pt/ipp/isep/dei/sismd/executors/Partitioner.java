@@ -0,0 +1,101 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How an executor cuts an image into regions, kept apart from how it runs them so the effect of memory locality
+ * can be measured on its own. Executors given a partitioner hand each worker a contiguous run of the regions, see
+ * {@link #assign(List, int)}; without one they keep their own split.
+ */
+@FunctionalInterface
+public interface Partitioner {
+
+    int DEFAULT_TILE_SIZE = 64;
+
+    /**
+     * Rows [startRow, endRow) and columns [startCol, endCol).
+     */
+    record Region(int startRow, int endRow, int startCol, int endCol) {
+
+        public long pixels() {
+            return (long) (endRow - startRow) * (endCol - startCol);
+        }
+    }
+
+    /**
+     * @param parts how many regions band partitioners cut, at most one per row or column; tile partitioners cut
+     *              tiles of a fixed size whatever it is
+     * @return regions covering every pixel exactly once, in the order they should be visited
+     */
+    List<Region> partition(int height, int width, int parts);
+
+    /**
+     * Whole rows, contiguous in every layout.
+     */
+    static Partitioner rowBands() {
+        return (height, width, parts) -> {
+            int bands = Math.max(1, Math.min(parts, height));
+            List<Region> regions = new ArrayList<>(bands);
+            for (int band = 0; band < bands; band++) {
+                regions.add(new Region((int) ((long) height * band / bands), (int) ((long) height * (band + 1) / bands), 0, width));
+            }
+            return regions;
+        };
+    }
+
+    /**
+     * Column ranges spanning every row, so each worker touches every row of the image.
+     */
+    static Partitioner columnBands() {
+        return (height, width, parts) -> {
+            int bands = Math.max(1, Math.min(parts, width));
+            List<Region> regions = new ArrayList<>(bands);
+            for (int band = 0; band < bands; band++) {
+                regions.add(new Region(0, height, (int) ((long) width * band / bands), (int) ((long) width * (band + 1) / bands)));
+            }
+            return regions;
+        };
+    }
+
+    /**
+     * size x size tiles, row by row.
+     */
+    static Partitioner squareTiles(int size) {
+        return new TilePartitioner(size, TilePartitioner.Order.ROWS);
+    }
+
+    /**
+     * size x size tiles along a Z-order (Morton) curve, so consecutive tiles, and hence each worker's run of them,
+     * stay close together in both directions.
+     */
+    static Partitioner zOrderTiles(int size) {
+        return new TilePartitioner(size, TilePartitioner.Order.Z_ORDER);
+    }
+
+    /**
+     * size x size tiles along a Hilbert curve: like Z-order, but every tile is next to the one before it.
+     */
+    static Partitioner hilbertTiles(int size) {
+        return new TilePartitioner(size, TilePartitioner.Order.HILBERT);
+    }
+
+    /**
+     * Splits regions, in order, into at most workers contiguous runs of about the same number of pixels.
+     */
+    static List<List<Region>> assign(List<Region> regions, int workers) {
+        long total = regions.stream().mapToLong(Region::pixels).sum();
+        List<List<Region>> runs = new ArrayList<>(workers);
+        long before = 0;
+        for (Region region : regions) {
+            int worker = total == 0 ? 0 : (int) Math.min(workers - 1, before * workers / total);
+            while (runs.size() <= worker) {
+                runs.add(new ArrayList<>());
+            }
+            runs.get(worker).add(region);
+            before += region.pixels();
+        }
+        runs.removeIf(List::isEmpty);
+        return runs;
+    }
+}
@@ -0,0 +1,160 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Workers take chunks of rows from a shared counter until none are left, so a worker that lands on expensive rows
+ * (the matching regions of a {@link pt.ipp.isep.dei.sismd.filters.ConditionalBlurFilter}, say) simply takes
+ * fewer chunks while the others carry on, instead of everyone waiting for the slowest static slice.
+ * <p>
+ * With {@link Schedule#GUIDED} each chunk is the remaining rows divided by twice the number of workers: big
+ * chunks while there is plenty left, down to the plan's minimum rows at the end, when balancing matters. The
+ * statistics of the last call, per worker, are kept in {@link #lastStatistics()}.
+ */
+public class SelfSchedulingExecutor implements FilterExecutor {
+
+    public enum Schedule {
+        /** The plan's minimum number of rows every time, the most balanced and the most claims. */
+        FIXED,
+        /** Shrinking chunks, see the class comment. */
+        GUIDED
+    }
+
+    /**
+     * @param busyNanos time spent filtering, claims included
+     */
+    public record WorkerStatistics(int worker, int chunks, int rows, long busyNanos) {
+    }
+
+    public record Statistics(List<WorkerStatistics> workers, long elapsedNanos) {
+
+        /**
+         * @return the busiest worker's time over the mean, 1 when perfectly balanced
+         */
+        public double imbalance() {
+            long max = workers.stream().mapToLong(WorkerStatistics::busyNanos).max().orElse(0);
+            double mean = workers.stream().mapToLong(WorkerStatistics::busyNanos).average().orElse(0);
+            return mean == 0 ? 1 : max / mean;
+        }
+    }
+
+    private final Filter filter;
+
+    private final Schedule schedule;
+
+    private final ExecutorService threadPool;
+
+    private final int workers;
+
+    private final boolean ownsThreadPool;
+
+    private volatile Statistics lastStatistics;
+
+    private volatile boolean closed;
+
+    /**
+     * Runs {@link ExecutorPools#parallelism()} workers on the shared {@link ExecutorPools#threadPool()}.
+     */
+    public SelfSchedulingExecutor(Filter filter, Schedule schedule) {
+        this(filter, schedule, ExecutorPools.threadPool(), ExecutorPools.parallelism(), false);
+    }
+
+    public SelfSchedulingExecutor(Filter filter) {
+        this(filter, Schedule.GUIDED);
+    }
+
+    /**
+     * Runs numberOfThreads workers on a pool of its own, shut down by {@link #close()}.
+     */
+    public SelfSchedulingExecutor(Filter filter, Schedule schedule, int numberOfThreads) {
+        this(filter, schedule, Executors.newFixedThreadPool(numberOfThreads, ExecutorPools.daemonThreads("self-scheduling-")),
+                numberOfThreads, true);
+    }
+
+    private SelfSchedulingExecutor(Filter filter, Schedule schedule, ExecutorService threadPool, int workers,
+                                   boolean ownsThreadPool) {
+        this.filter = filter;
+        this.schedule = schedule;
+        this.threadPool = threadPool;
+        this.workers = workers;
+        this.ownsThreadPool = ownsThreadPool;
+    }
+
+    @Override
+    public Image apply(Image image) {
+        if (closed) throw new IllegalStateException("Executor is closed");
+        long start = System.nanoTime();
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        ExecutionPlan plan = ExecutionPlan.of(filter, image);
+        AtomicInteger nextRow = new AtomicInteger();
+        WorkerStatistics[] statistics = new WorkerStatistics[workers];
+        TaskGroup tasks = new TaskGroup(threadPool);
+        for (int worker = 0; worker < workers; worker++) {
+            final int id = worker;
+            tasks.submit(() -> statistics[id] = work(id, plan, image, output, nextRow));
+        }
+        tasks.await(ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        lastStatistics = new Statistics(List.of(statistics), System.nanoTime() - start);
+        return new Image(output);
+    }
+
+    private WorkerStatistics work(int worker, ExecutionPlan plan, Image image, PixelBuffer output,
+                                  AtomicInteger nextRow) {
+        long start = System.nanoTime();
+        int chunks = 0;
+        int rows = 0;
+        int startRow;
+        while ((startRow = claim(nextRow, image.height(), plan.minRows())) < image.height()) {
+            // the same end claim moved the counter to
+            int endRow = Math.min(image.height(), startRow + chunkRows(image.height() - startRow, plan.minRows()));
+            FilterRows.apply(plan.filter(), image, output, startRow, endRow);
+            chunks++;
+            rows += endRow - startRow;
+        }
+        return new WorkerStatistics(worker, chunks, rows, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the first row of the chunk taken, height once every row is taken
+     */
+    private int claim(AtomicInteger nextRow, int height, int minRows) {
+        while (true) {
+            int startRow = nextRow.get();
+            if (startRow >= height) {
+                return height;
+            }
+            int endRow = Math.min(height, startRow + chunkRows(height - startRow, minRows));
+            if (nextRow.compareAndSet(startRow, endRow)) {
+                return startRow;
+            }
+        }
+    }
+
+    private int chunkRows(int remainingRows, int minRows) {
+        return schedule == Schedule.FIXED ? minRows : Math.max(minRows, remainingRows / (2 * workers));
+    }
+
+    /**
+     * @return per-worker chunks, rows and busy time of the last call, null before the first
+     */
+    public Statistics lastStatistics() {
+        return lastStatistics;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsThreadPool) {
+            threadPool.shutdown();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package pt.ipp.isep.dei.sismd.executors;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
+import pt.ipp.isep.dei.sismd.domain.TiledPixelBuffer;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
 public class SequentialExecutor implements FilterExecutor {
@@ -14,12 +16,13 @@ public class SequentialExecutor implements FilterExecutor {
 
     @Override
     public Image apply(Image image) {
-        Color[][] pixelMatrix = new Color[image.height()][image.width()];
-        for (int i = 0; i < image.height(); i++) {
-            for (int j = 0; j < image.width(); j++) {
-                pixelMatrix[i][j] = filter.apply(i, j,image);
-            }
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        Filter planned = ExecutionPlan.of(filter, image).filter();
+        if (image.pixels() instanceof TiledPixelBuffer tiled) {
+            FilterRows.applyTiles(planned, tiled, image, output);
+        } else {
+            FilterRows.apply(planned, image, output, 0, image.height());
         }
-        return new Image(pixelMatrix);
+        return new Image(output);
     }
 }
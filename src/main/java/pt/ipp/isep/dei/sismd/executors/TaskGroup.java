@@ -0,0 +1,67 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The tasks one {@code apply} call submits to a shared executor, so the call can wait for exactly those tasks
+ * instead of shutting the executor down or waiting for it to go idle. Keeps a single permit counter rather than
+ * one future per task, which matters for the per-pixel executors.
+ * <p>
+ * Must not be awaited from a thread of the same fixed-size executor, or the tasks may never get a thread.
+ */
+final class TaskGroup {
+
+    private final Executor executor;
+    private final Semaphore finished = new Semaphore(0);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private int submitted;
+
+    TaskGroup(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @throws java.util.concurrent.RejectedExecutionException if the executor refuses the task, which is then not
+     *                                                         counted
+     */
+    void submit(Runnable task) {
+        executor.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    task.run();
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                finished.release();
+            }
+        });
+        submitted++;
+    }
+
+    /**
+     * Waits for every submitted task.
+     *
+     * @throws FilterExecutionException if a task failed, the wait timed out or was interrupted
+     */
+    void await(long timeout, TimeUnit unit) {
+        try {
+            if (!finished.tryAcquire(submitted, timeout, unit)) {
+                failure.compareAndSet(null, new IllegalStateException("cancelled after timeout"));
+                throw new FilterExecutionException("Timed out after " + timeout + " " + unit.name().toLowerCase()
+                        + " with " + (submitted - finished.availablePermits()) + " of " + submitted + " tasks left");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            throw new FilterExecutionException("Interrupted while waiting for tasks", e);
+        }
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw new FilterExecutionException("Filter task failed", cause);
+        }
+    }
+}
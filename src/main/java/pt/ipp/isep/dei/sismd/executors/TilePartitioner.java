@@ -0,0 +1,93 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Square tiles visited in one of three orders, see the tile factories of {@link Partitioner}.
+ */
+final class TilePartitioner implements Partitioner {
+
+    enum Order {
+        ROWS,
+        Z_ORDER,
+        HILBERT
+    }
+
+    private final int size;
+
+    private final Order order;
+
+    TilePartitioner(int size, Order order) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Tile size must be at least 1, got " + size);
+        }
+        this.size = size;
+        this.order = order;
+    }
+
+    @Override
+    public List<Region> partition(int height, int width, int parts) {
+        int tileRows = (height + size - 1) / size;
+        int tileCols = (width + size - 1) / size;
+        // the smallest power-of-two square of tiles holding the image, the curves are defined on squares
+        int side = Math.max(1, Integer.highestOneBit(Math.max(1, Math.max(tileRows, tileCols) - 1)) << 1);
+        long[][] tiles = new long[tileRows * tileCols][];
+        for (int row = 0; row < tileRows; row++) {
+            for (int col = 0; col < tileCols; col++) {
+                long key = switch (order) {
+                    case ROWS -> (long) row * tileCols + col;
+                    case Z_ORDER -> mortonIndex(row, col);
+                    case HILBERT -> hilbertIndex(side, row, col);
+                };
+                tiles[row * tileCols + col] = new long[]{key, row, col};
+            }
+        }
+        if (order != Order.ROWS) {
+            Arrays.sort(tiles, Comparator.comparingLong(tile -> tile[0]));
+        }
+        List<Region> regions = new ArrayList<>(tiles.length);
+        for (long[] tile : tiles) {
+            int startRow = (int) tile[1] * size;
+            int startCol = (int) tile[2] * size;
+            regions.add(new Region(startRow, Math.min(height, startRow + size), startCol, Math.min(width, startCol + size)));
+        }
+        return regions;
+    }
+
+    static long mortonIndex(int row, int col) {
+        long index = 0;
+        for (int bit = 0; bit < 31; bit++) {
+            index |= (long) ((col >>> bit) & 1) << (2 * bit);
+            index |= (long) ((row >>> bit) & 1) << (2 * bit + 1);
+        }
+        return index;
+    }
+
+    /**
+     * Position of (row, col) along the Hilbert curve filling a side x side square, side a power of two.
+     */
+    static long hilbertIndex(int side, int row, int col) {
+        int x = col;
+        int y = row;
+        long index = 0;
+        for (int half = side / 2; half > 0; half /= 2) {
+            int rx = (x & half) > 0 ? 1 : 0;
+            int ry = (y & half) > 0 ? 1 : 0;
+            index += (long) half * half * ((3 * rx) ^ ry);
+            // rotate the quadrant so the curve enters and leaves it where the next level expects
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int swap = x;
+                x = y;
+                y = swap;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,179 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Properties;
+
+/**
+ * Executor settings measured on this machine by {@code benchmarking.AutoTuner}, per filter and image size class.
+ * Stored as a properties file:
+ * <pre>
+ * threads=8
+ * blur.big.millis=41.7
+ * blur.big.threads=6
+ * blur.big.threshold=50000
+ * </pre>
+ * {@link #current()} is read once from the {@code sismd.profile} system property, or {@link #DEFAULT_PATH} when
+ * that is not set; executors fall back to their built-in defaults for anything the profile does not cover, and for
+ * everything when the file cannot be read or holds a malformed value.
+ */
+public final class TuningProfile {
+
+    public static final String DEFAULT_PATH = "tuning-profile.properties";
+
+    public enum SizeClass {
+        small,
+        medium,
+        big,
+        huge;
+
+        public static SizeClass of(int height, int width) {
+            long pixels = (long) height * width;
+            if (pixels < 500_000) return small;
+            if (pixels < 4_000_000) return medium;
+            if (pixels < 16_000_000) return big;
+            return huge;
+        }
+    }
+
+    /**
+     * What won for one filter and size class.
+     *
+     * @param millis    the fastest executor's average time per image, for reference
+     * @param threads   the best thread count for {@link MultithreadedExecutor}, 0 when not measured
+     * @param threshold the best {@link ForkJoinExecutor} threshold, 0 when not measured
+     */
+    public record Entry(double millis, int threads, int threshold) {
+    }
+
+    private static TuningProfile current;
+
+    private final Properties properties;
+
+    public TuningProfile() {
+        this(new Properties());
+    }
+
+    private TuningProfile(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @return the profile executors use, empty when there is no profile file or it cannot be loaded
+     */
+    public static synchronized TuningProfile current() {
+        if (current == null) {
+            Path path = Path.of(System.getProperty("sismd.profile", DEFAULT_PATH));
+            current = new TuningProfile();
+            if (Files.isRegularFile(path)) {
+                try {
+                    current = load(path);
+                } catch (UncheckedIOException | IllegalArgumentException e) {
+                    System.out.println("[WARNING] " + e.getMessage() + ", running with built-in defaults");
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @throws UncheckedIOException     if the file cannot be read
+     * @throws IllegalArgumentException if a thread count, threshold or time is not a valid number
+     */
+    public static TuningProfile load(Path path) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read tuning profile " + path, e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (!isValid(key, properties.getProperty(key))) {
+                throw new IllegalArgumentException("Invalid value '" + properties.getProperty(key) + "' for " + key
+                        + " in tuning profile " + path);
+            }
+        }
+        return new TuningProfile(properties);
+    }
+
+    /**
+     * @return whether value parses the way {@link #entry} and {@link #parallelism()} will read it
+     */
+    private static boolean isValid(String key, String value) {
+        try {
+            if (key.endsWith(".millis")) {
+                return Double.parseDouble(value) >= 0;
+            }
+            if (key.equals("threads") || key.endsWith(".threads") || key.endsWith(".threshold")) {
+                return Integer.parseInt(value) > 0;
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public void save(Path path, String comment) {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, comment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write tuning profile " + path, e);
+        }
+    }
+
+    /**
+     * @return the key filters are stored under, e.g. "blur" for BlurFilter
+     */
+    public static String filterKey(Class<? extends Filter> filter) {
+        return filter.getSimpleName().replace("Filter", "").toLowerCase();
+    }
+
+    public void put(Class<? extends Filter> filter, SizeClass size, Entry entry) {
+        String prefix = filterKey(filter) + "." + size + ".";
+        properties.setProperty(prefix + "millis", Double.toString(entry.millis()));
+        if (entry.threads() > 0) properties.setProperty(prefix + "threads", Integer.toString(entry.threads()));
+        if (entry.threshold() > 0) properties.setProperty(prefix + "threshold", Integer.toString(entry.threshold()));
+    }
+
+    public Optional<Entry> entry(Filter filter, Image image) {
+        String prefix = filterKey(filter.getClass()) + "." + SizeClass.of(image.height(), image.width()) + ".";
+        String millis = properties.getProperty(prefix + "millis");
+        if (millis == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Entry(Double.parseDouble(millis),
+                Integer.parseInt(properties.getProperty(prefix + "threads", "0")),
+                Integer.parseInt(properties.getProperty(prefix + "threshold", "0"))));
+    }
+
+    public OptionalInt threshold(Filter filter, Image image) {
+        return entry(filter, image).filter(entry -> entry.threshold() > 0)
+                .map(entry -> OptionalInt.of(entry.threshold())).orElse(OptionalInt.empty());
+    }
+
+    public OptionalInt threads(Filter filter, Image image) {
+        return entry(filter, image).filter(entry -> entry.threads() > 0)
+                .map(entry -> OptionalInt.of(entry.threads())).orElse(OptionalInt.empty());
+    }
+
+    /**
+     * @return the size of the shared pools, see {@link ExecutorPools#parallelism()}
+     */
+    public OptionalInt parallelism() {
+        String threads = properties.getProperty("threads");
+        return threads == null ? OptionalInt.empty() : OptionalInt.of(Integer.parseInt(threads));
+    }
+
+    public void setParallelism(int threads) {
+        properties.setProperty("threads", Integer.toString(threads));
+    }
+}
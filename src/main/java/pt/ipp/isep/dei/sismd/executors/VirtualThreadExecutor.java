@@ -0,0 +1,108 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every line or tile on its own virtual thread. Only a limited number of them filter at once (by default
+ * {@link ExecutorPools#cpuPermits()}, shared by all instances), so callers can run thousands of load / filter /
+ * write jobs on virtual threads of their own without sizing a platform-thread pool: jobs blocked on I/O cost
+ * nothing and filtering never oversubscribes the cores.
+ */
+public class VirtualThreadExecutor implements FilterExecutor {
+
+    public enum Granularity {
+        LINE,
+        TILE
+    }
+
+    public static final int DEFAULT_TILE_SIZE = Partitioner.DEFAULT_TILE_SIZE;
+
+    private final Filter filter;
+
+    private final Partitioner partitioner;
+
+    private final Semaphore cpuPermits;
+
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile boolean closed;
+
+    public VirtualThreadExecutor(Filter filter, Granularity granularity) {
+        this(filter, partitioner(granularity), ExecutorPools.cpuPermits());
+    }
+
+    /**
+     * @param maxConcurrency how many lines or tiles of this executor may be filtered at the same time
+     */
+    public VirtualThreadExecutor(Filter filter, Granularity granularity, int maxConcurrency) {
+        this(filter, partitioner(granularity), new Semaphore(checkConcurrency(maxConcurrency)));
+    }
+
+    /**
+     * One virtual thread per region of the partitioner; band partitioners cut one band per row or column.
+     *
+     * @param maxConcurrency how many regions of this executor may be filtered at the same time
+     */
+    public VirtualThreadExecutor(Filter filter, Partitioner partitioner, int maxConcurrency) {
+        this(filter, partitioner, new Semaphore(checkConcurrency(maxConcurrency)));
+    }
+
+    private VirtualThreadExecutor(Filter filter, Partitioner partitioner, Semaphore cpuPermits) {
+        this.filter = filter;
+        this.partitioner = partitioner;
+        this.cpuPermits = cpuPermits;
+    }
+
+    public VirtualThreadExecutor(Filter filter) {
+        this(filter, Granularity.LINE);
+    }
+
+    @Override
+    public Image apply(Image image) {
+        if (closed) throw new IllegalStateException("Executor is closed");
+        PixelBuffer output = PixelBufferPool.shared().borrow(image.pixels());
+        Filter planned = ExecutionPlan.of(filter, image).filter();
+        TaskGroup tasks = new TaskGroup(virtualThreads);
+        for (Partitioner.Region region : partitioner.partition(image.height(), image.width(), Math.max(image.height(), image.width()))) {
+            tasks.submit(limited(() -> FilterRows.apply(planned, image, output, region)));
+        }
+        tasks.await(ExecutorPools.TASK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return new Image(output);
+    }
+
+    private static Partitioner partitioner(Granularity granularity) {
+        return granularity == Granularity.LINE ? Partitioner.rowBands() : Partitioner.squareTiles(DEFAULT_TILE_SIZE);
+    }
+
+    private static int checkConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("At least one concurrent task is needed, got " + maxConcurrency);
+        }
+        return maxConcurrency;
+    }
+
+    private Runnable limited(Runnable task) {
+        return () -> {
+            cpuPermits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                cpuPermits.release();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        virtualThreads.shutdown();
+    }
+}
@@ -1,18 +1,16 @@
 package pt.ipp.isep.dei.sismd.filters;
 
-import pt.ipp.isep.dei.sismd.domain.Color;
-
-import java.util.function.Predicate;
-
 public class BlurFilter extends ConditionalBlurFilter {
 
-    private static Predicate<Color> DEFAULT_FILTER = color -> true;
-
     public BlurFilter(int blurEffect) {
-        super(blurEffect, DEFAULT_FILTER);
+        super(blurEffect, Mode.SLIDING_WINDOW);
+    }
+
+    public BlurFilter(int blurEffect, Mode mode) {
+        super(blurEffect, mode);
     }
 
     public BlurFilter() {
-        super(DEFAULT_FILTER);
+        super(1, Mode.SLIDING_WINDOW);
     }
 }
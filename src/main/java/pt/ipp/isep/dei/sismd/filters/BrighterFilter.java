@@ -2,19 +2,31 @@ package pt.ipp.isep.dei.sismd.filters;
 
 import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
-import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelLayout;
+import pt.ipp.isep.dei.sismd.domain.PlanarPixelBuffer;
 
-public class BrighterFilter implements Filter {
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+
+public class BrighterFilter implements PointFilter, PlanarFilter {
 
     public static final int MAX_HUE_VALUE = 255;
     private final int brightness;
+    private final LookupTable lookupTable;
+    // the vector kernels saturate an unsigned byte add, which only matches the scalar code for 0..255
+    private final boolean vectorized;
 
     public BrighterFilter(int brightness) {
         this.brightness = brightness;
+        IntUnaryOperator bright = value -> Math.min(value + brightness, MAX_HUE_VALUE);
+        this.lookupTable = LookupTable.perChannel(bright, bright, bright);
+        this.vectorized = Simd.ENABLED && brightness >= 0 && brightness <= MAX_HUE_VALUE;
     }
 
     public BrighterFilter() {
-        this.brightness = 100;
+        this(100);
     }
 
     protected Color bright(int i, int j, Image image) {
@@ -32,4 +44,51 @@ public class BrighterFilter implements Filter {
                 Math.min(color.green() + brightness, MAX_HUE_VALUE),
                 Math.min(color.blue() + brightness, MAX_HUE_VALUE));
     }
+
+    @Override
+    public int applyToRgb(int rgb) {
+        return Color.rgb(Math.min(Color.red(rgb) + brightness, MAX_HUE_VALUE),
+                Math.min(Color.green(rgb) + brightness, MAX_HUE_VALUE),
+                Math.min(Color.blue(rgb) + brightness, MAX_HUE_VALUE));
+    }
+
+    @Override
+    public Optional<LookupTable> lookupTable() {
+        return Optional.of(lookupTable);
+    }
+
+    @Override
+    public void applyRows(PlanarPixelBuffer source, PlanarPixelBuffer destination, int startRow, int endRow) {
+        int from = startRow * source.width();
+        int to = endRow * source.width();
+        brightPlane(source.red(), destination.red(), from, to);
+        brightPlane(source.green(), destination.green(), from, to);
+        brightPlane(source.blue(), destination.blue(), from, to);
+    }
+
+    @Override
+    public void applySpan(int i, int startJ, int endJ, Image image, PixelBuffer destination) {
+        if (vectorized && image.pixels() instanceof PackedPixelBuffer source
+                && destination instanceof PackedPixelBuffer output) {
+            int rowOffset = source.indexOf(i, 0);
+            VectorKernels.brighten(source.pixels(), output.pixels(), rowOffset + startJ, rowOffset + endJ, brightness);
+            return;
+        }
+        PointFilter.super.applySpan(i, startJ, endJ, image, destination);
+    }
+
+    private void brightPlane(byte[] source, byte[] destination, int from, int to) {
+        if (vectorized) {
+            VectorKernels.brighten(source, destination, from, to, brightness);
+            return;
+        }
+        for (int k = from; k < to; k++) {
+            destination[k] = (byte) Math.min((source[k] & 0xFF) + brightness, MAX_HUE_VALUE);
+        }
+    }
+
+    @Override
+    public PixelLayout preferredLayout() {
+        return PixelLayout.PLANAR;
+    }
 }
@@ -2,27 +2,102 @@ package pt.ipp.isep.dei.sismd.filters;
 
 import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.IntegralImage;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.TiledPixelBuffer;
 
+import java.util.Optional;
+import java.util.function.IntBinaryOperator;
 import java.util.function.Predicate;
 
-public class ConditionalBlurFilter implements Filter {
+/**
+ * Box blur of the pixels matching a condition; the others are copied unchanged. The condition is evaluated once
+ * per image into a {@link PixelMask}, so regions without matches are copied in bulk and sparse matches are
+ * blurred one window at a time instead of sliding a window over every pixel.
+ */
+public class ConditionalBlurFilter implements MaskedFilter {
+
+    /**
+     * SLIDING_WINDOW keeps running sums per region; INTEGRAL_IMAGE answers every window from the source image's
+     * cached {@link IntegralImage}, which pays off when several radii are applied to the same image.
+     */
+    public enum Mode {
+        SLIDING_WINDOW,
+        INTEGRAL_IMAGE
+    }
+
+    // below this many window reads per region pixel, matches are blurred one by one rather than by sliding
+    private static final int SPARSE_READS_PER_PIXEL = 4;
 
     private int blurEffect;
     private Predicate<Color> filterCondition;
+    private RgbPredicate rgbCondition;
+    private boolean unconditional;
+    private Mode mode = Mode.SLIDING_WINDOW;
+    // the tables of the last image, so per-pixel calls skip the IntegralImage cache
+    private volatile IntegralImage lastIntegral;
 
     public ConditionalBlurFilter(int blurEffect, Predicate<Color> filterCondition) {
         this.blurEffect = blurEffect;
         this.filterCondition = filterCondition;
+        this.rgbCondition = RgbPredicate.of(filterCondition);
+    }
+
+    public ConditionalBlurFilter(int blurEffect, Predicate<Color> filterCondition, Mode mode) {
+        this(blurEffect, filterCondition);
+        this.mode = mode;
     }
 
     public ConditionalBlurFilter(Predicate<Color> filterCondition) {
-        blurEffect = 1;
-        this.filterCondition = filterCondition;
+        this(1, filterCondition);
     }
 
     public ConditionalBlurFilter() {
         blurEffect = 1;
         this.filterCondition = color -> color.red() > color.blue() && color.red() > color.green();
+        this.rgbCondition = rgb -> Color.red(rgb) > Color.blue(rgb) && Color.red(rgb) > Color.green(rgb);
+    }
+
+    /**
+     * Blur of every pixel, see {@link BlurFilter}.
+     */
+    ConditionalBlurFilter(int blurEffect, Mode mode) {
+        this.blurEffect = blurEffect;
+        this.filterCondition = color -> true;
+        this.rgbCondition = rgb -> true;
+        this.unconditional = true;
+        this.mode = mode;
+    }
+
+    /**
+     * Same as the Predicate constructors with a condition on packed pixels, which avoids a Color per pixel when
+     * building the mask.
+     */
+    public static ConditionalBlurFilter ofRgb(int blurEffect, RgbPredicate condition, Mode mode) {
+        ConditionalBlurFilter filter = new ConditionalBlurFilter(blurEffect, color -> condition.test(color.rgb()), mode);
+        filter.rgbCondition = condition;
+        return filter;
+    }
+
+    @Override
+    public Optional<PixelMask> mask(Image image) {
+        if (unconditional) return Optional.empty();
+        return Optional.of(PixelMask.cached(image, rgbCondition));
+    }
+
+    /**
+     * The sliding window costs about the same per pixel whatever the radius; the integral image, four lookups
+     * per channel.
+     */
+    @Override
+    public FilterCapabilities capabilities() {
+        return FilterCapabilities.neighbourhood(blurEffect, mode == Mode.INTEGRAL_IMAGE ? 4 : 8);
+    }
+
+    @Override
+    public int matchCost() {
+        return (2 * blurEffect + 1) * (2 * blurEffect + 1);
     }
 
     @Override
@@ -47,4 +122,222 @@ public class ConditionalBlurFilter implements Filter {
         Color result = new Color(redSum / totalPixels, greenSum / totalPixels, blueSum / totalPixels);
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the mask, and the summed-area tables in INTEGRAL_IMAGE mode, before the executor goes parallel.
+     */
+    @Override
+    public void prepare(Image image) {
+        mask(image);
+        if (mode == Mode.INTEGRAL_IMAGE) integral(image);
+    }
+
+    private IntegralImage integral(Image image) {
+        IntegralImage integral = lastIntegral;
+        if (integral == null || !integral.isFor(image)) {
+            lastIntegral = integral = IntegralImage.of(image);
+        }
+        return integral;
+    }
+
+    @Override
+    public int applyRgb(int i, int j, Image image) {
+
+        if (!rgbCondition.test(image.obtainRgb(i, j))) return image.obtainRgb(i, j);
+
+        if (mode == Mode.INTEGRAL_IMAGE) return blurIntegral(i, j, integral(image));
+
+        return blurWindow(i, j, image.pixels());
+    }
+
+    private int blurWindow(int i, int j, PixelBuffer source) {
+        if (source instanceof TiledPixelBuffer tiled) return blurTiled(i, j, tiled);
+
+        int redSum = 0;
+        int greenSum = 0;
+        int blueSum = 0;
+        int totalPixels = 0;
+
+        for (int h = Math.max(i - this.blurEffect, 0); h <= Math.min(i + this.blurEffect, source.height() - 1); h++) {
+            for (int w = Math.max(j - this.blurEffect, 0); w <= Math.min(j + this.blurEffect, source.width() - 1); w++) {
+                int rgb = source.getRgb(h, w);
+                redSum += Color.red(rgb);
+                greenSum += Color.green(rgb);
+                blueSum += Color.blue(rgb);
+                totalPixels++;
+            }
+        }
+        return Color.rgb(redSum / totalPixels, greenSum / totalPixels, blueSum / totalPixels);
+    }
+
+    /**
+     * The slow path: each call sets up the window's column sums for a single row. Executors go through
+     * {@link #applyRegion} with whole bands instead, see {@code FilterRows}.
+     */
+    @Override
+    public void applySpan(int i, int startJ, int endJ, Image image, PixelBuffer destination) {
+        applyRegion(image, destination, i, i + 1, startJ, endJ);
+    }
+
+    /**
+     * Sliding-window box blur: keeps per-column sums over the current window rows and slides a running sum
+     * across them, so each pixel costs the same whatever the radius. Windows are clamped to the image and
+     * divided by the number of pixels they actually cover, exactly like {@link #applyRgb}.
+     * <p>
+     * Sets up column sums for the region plus its halo first, so regions should span several rows. Regions with
+     * no matching pixel are copied, and sparse ones (or any region in INTEGRAL_IMAGE mode) go through
+     * {@link #applyRuns}.
+     */
+    @Override
+    public void applyRegion(Image image, PixelBuffer destination, int startRow, int endRow, int startCol, int endCol) {
+        PixelMask mask = mask(image).orElse(null);
+        if (mode == Mode.INTEGRAL_IMAGE) {
+            IntegralImage integral = integral(image);
+            applyRuns(image, destination, mask, startRow, endRow, startCol, endCol, (i, j) -> blurIntegral(i, j, integral));
+            return;
+        }
+        if (mask != null) {
+            long matches = mask.count(startRow, endRow, startCol, endCol);
+            long pixels = (long) (endRow - startRow) * (endCol - startCol);
+            if (matches * matchCost() < pixels * SPARSE_READS_PER_PIXEL) {
+                PixelBuffer source = image.pixels();
+                applyRuns(image, destination, mask, startRow, endRow, startCol, endCol, (i, j) -> blurWindow(i, j, source));
+                return;
+            }
+        }
+        PixelBuffer source = image.pixels();
+        int height = source.height();
+        int width = source.width();
+        int firstCol = Math.max(startCol - this.blurEffect, 0);
+        int lastCol = Math.min(endCol - 1 + this.blurEffect, width - 1);
+        int columns = lastCol - firstCol + 1;
+        int[] redColumns = new int[columns];
+        int[] greenColumns = new int[columns];
+        int[] blueColumns = new int[columns];
+
+        for (int h = Math.max(startRow - this.blurEffect, 0); h <= Math.min(startRow + this.blurEffect, height - 1); h++) {
+            accumulateRow(source, h, firstCol, redColumns, greenColumns, blueColumns, 1);
+        }
+
+        for (int i = startRow; i < endRow; i++) {
+            if (i > startRow) {
+                int leavingRow = i - this.blurEffect - 1;
+                int enteringRow = i + this.blurEffect;
+                if (leavingRow >= 0) accumulateRow(source, leavingRow, firstCol, redColumns, greenColumns, blueColumns, -1);
+                if (enteringRow < height) accumulateRow(source, enteringRow, firstCol, redColumns, greenColumns, blueColumns, 1);
+            }
+            int windowRows = Math.min(i + this.blurEffect, height - 1) - Math.max(i - this.blurEffect, 0) + 1;
+
+            int redSum = 0;
+            int greenSum = 0;
+            int blueSum = 0;
+            for (int w = Math.max(startCol - this.blurEffect, 0); w <= Math.min(startCol + this.blurEffect, width - 1); w++) {
+                redSum += redColumns[w - firstCol];
+                greenSum += greenColumns[w - firstCol];
+                blueSum += blueColumns[w - firstCol];
+            }
+
+            for (int j = startCol; j < endCol; j++) {
+                if (j > startCol) {
+                    int leavingCol = j - this.blurEffect - 1;
+                    int enteringCol = j + this.blurEffect;
+                    if (leavingCol >= 0) {
+                        redSum -= redColumns[leavingCol - firstCol];
+                        greenSum -= greenColumns[leavingCol - firstCol];
+                        blueSum -= blueColumns[leavingCol - firstCol];
+                    }
+                    if (enteringCol < width) {
+                        redSum += redColumns[enteringCol - firstCol];
+                        greenSum += greenColumns[enteringCol - firstCol];
+                        blueSum += blueColumns[enteringCol - firstCol];
+                    }
+                }
+                if (mask != null && !mask.get(i, j)) {
+                    destination.setRgb(i, j, source.getRgb(i, j));
+                    continue;
+                }
+                int windowColumns = Math.min(j + this.blurEffect, width - 1) - Math.max(j - this.blurEffect, 0) + 1;
+                int totalPixels = windowRows * windowColumns;
+                destination.setRgb(i, j, Color.rgb(redSum / totalPixels, greenSum / totalPixels, blueSum / totalPixels));
+            }
+        }
+    }
+
+    /**
+     * Walks each row as alternating runs of unmatched pixels, copied in bulk, and matched ones, each blurred on its
+     * own with blur. A null mask matches everything.
+     */
+    private void applyRuns(Image image, PixelBuffer destination, PixelMask mask,
+                           int startRow, int endRow, int startCol, int endCol, IntBinaryOperator blur) {
+        PixelBuffer source = image.pixels();
+        for (int i = startRow; i < endRow; i++) {
+            int j = startCol;
+            while (j < endCol) {
+                int matchStart = mask == null ? j : mask.nextMatch(i, j, endCol);
+                copyRun(source, destination, i, j, matchStart);
+                int matchEnd = mask == null ? endCol : mask.nextMiss(i, matchStart, endCol);
+                for (j = matchStart; j < matchEnd; j++) {
+                    destination.setRgb(i, j, blur.applyAsInt(i, j));
+                }
+            }
+        }
+    }
+
+    private static void copyRun(PixelBuffer source, PixelBuffer destination, int i, int startCol, int endCol) {
+        if (source instanceof PackedPixelBuffer packedSource && destination instanceof PackedPixelBuffer packedOutput) {
+            int offset = packedSource.indexOf(i, startCol);
+            System.arraycopy(packedSource.pixels(), offset, packedOutput.pixels(), offset, endCol - startCol);
+            return;
+        }
+        for (int j = startCol; j < endCol; j++) {
+            destination.setRgb(i, j, source.getRgb(i, j));
+        }
+    }
+
+    private int blurIntegral(int i, int j, IntegralImage integral) {
+        return integral.meanRgb(Math.max(i - this.blurEffect, 0), Math.min(i + this.blurEffect, integral.height() - 1),
+                Math.max(j - this.blurEffect, 0), Math.min(j + this.blurEffect, integral.width() - 1));
+    }
+
+    private static void accumulateRow(PixelBuffer source, int row, int firstCol,
+                                      int[] redColumns, int[] greenColumns, int[] blueColumns, int sign) {
+        if (Simd.ENABLED && source instanceof PackedPixelBuffer packed) {
+            VectorKernels.accumulateRow(packed.pixels(), packed.indexOf(row, firstCol), redColumns, greenColumns, blueColumns, sign);
+            return;
+        }
+        for (int c = 0; c < redColumns.length; c++) {
+            int rgb = source.getRgb(row, firstCol + c);
+            redColumns[c] += sign * Color.red(rgb);
+            greenColumns[c] += sign * Color.green(rgb);
+            blueColumns[c] += sign * Color.blue(rgb);
+        }
+    }
+
+    private int blurTiled(int i, int j, TiledPixelBuffer tiled) {
+        int startH = Math.max(i - this.blurEffect, 0);
+        int endH = Math.min(i + this.blurEffect, tiled.height() - 1);
+        int startW = Math.max(j - this.blurEffect, 0);
+        int endW = Math.min(j + this.blurEffect, tiled.width() - 1);
+        int[] pixels = tiled.pixels();
+        int redSum = 0;
+        int greenSum = 0;
+        int blueSum = 0;
+        for (int h = startH; h <= endH; h++) {
+            int w = startW;
+            while (w <= endW) {
+                int runEnd = Math.min(tiled.tileEndCol(w), endW);
+                int offset = tiled.offsetOf(h, w);
+                int runEndOffset = offset + runEnd - w;
+                for (int k = offset; k <= runEndOffset; k++) {
+                    int rgb = pixels[k];
+                    redSum += Color.red(rgb);
+                    greenSum += Color.green(rgb);
+                    blueSum += Color.blue(rgb);
+                }
+                w = runEnd + 1;
+            }
+        }
+        int totalPixels = (endH - startH + 1) * (endW - startW + 1);
+        return Color.rgb(redSum / totalPixels, greenSum / totalPixels, blueSum / totalPixels);
+    }
+}
@@ -0,0 +1,128 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the coordinate mappings of geometric filters such as {@link SwirlFilter}, which only depend on the image
+ * size and the filter parameters. A map holds, for every destination pixel {@code i * width + j}, the index of
+ * the source pixel it is copied from, so once it is cached filtering an image of the same size is a plain gather.
+ * <p>
+ * The cache is bounded by the bytes its maps take: least recently used maps are evicted to make room, and maps
+ * bigger than the whole capacity are never cached (callers then fall back to computing coordinates per pixel).
+ */
+public class DisplacementMapCache {
+
+    public static final long DEFAULT_CAPACITY_BYTES = 256L * 1024 * 1024;
+
+    private static final DisplacementMapCache SHARED = new DisplacementMapCache(DEFAULT_CAPACITY_BYTES);
+
+    public record Statistics(long hits, long misses, long evictions, long oversized) {
+    }
+
+    record Key(String filter, int height, int width, int parameter) {
+    }
+
+    private final long capacityBytes;
+    // futures, so a map is built outside the cache lock while other callers asking for it wait on the future
+    private final LinkedHashMap<Key, CompletableFuture<int[]>> maps = new LinkedHashMap<>(16, 0.75f, true);
+    private long retainedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long oversized;
+
+    public DisplacementMapCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * @return the cache used by the filters in this package.
+     */
+    public static DisplacementMapCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the cached map for key, building it with builder on a miss. The caller that misses builds the map
+     * without holding the cache lock; others asking for the same map meanwhile wait for that build instead of
+     * starting their own, and lookups of other maps are not held up.
+     *
+     * @return the map, or null when a map of that size does not fit in the cache
+     */
+    int[] get(Key key, Supplier<int[]> builder) {
+        long bytes = bytes(key);
+        CompletableFuture<int[]> map;
+        boolean build = false;
+        synchronized (this) {
+            if (bytes > capacityBytes) {
+                oversized++;
+                return null;
+            }
+            map = maps.get(key);
+            if (map != null) {
+                hits++;
+            } else {
+                misses++;
+                // room is made now, so the bytes are accounted for while the map is built
+                Iterator<Key> eldest = maps.keySet().iterator();
+                while (retainedBytes + bytes > capacityBytes) {
+                    retainedBytes -= bytes(eldest.next());
+                    eldest.remove();
+                    evictions++;
+                }
+                map = new CompletableFuture<>();
+                maps.put(key, map);
+                retainedBytes += bytes;
+                build = true;
+            }
+        }
+        if (build) {
+            try {
+                map.complete(builder.get());
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    if (maps.remove(key, map)) {
+                        retainedBytes -= bytes;
+                    }
+                }
+                map.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return map.join();
+    }
+
+    private static long bytes(Key key) {
+        return (long) key.height() * key.width() * Integer.BYTES;
+    }
+
+    public synchronized Statistics statistics() {
+        return new Statistics(hits, misses, evictions, oversized);
+    }
+
+    public synchronized long retainedBytes() {
+        return retainedBytes;
+    }
+
+    public long capacityBytes() {
+        return capacityBytes;
+    }
+
+    public synchronized int size() {
+        return maps.size();
+    }
+
+    public synchronized void clear() {
+        maps.clear();
+        retainedBytes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "DisplacementMapCache{maps=" + maps.size() + ", retained=" + retainedBytes / (1024 * 1024) + "MiB/"
+                + capacityBytes / (1024 * 1024) + "MiB, " + new Statistics(hits, misses, evictions, oversized) + "}";
+    }
+}
@@ -2,7 +2,52 @@ package pt.ipp.isep.dei.sismd.filters;
 
 import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelLayout;
 
 public interface Filter {
     Color apply(int i, int j, Image image);
+
+    /**
+     * Same as {@link #apply(int, int, Image)} but with the result packed as 0xRRGGBB, so that executors writing
+     * into a packed image do not allocate a Color per pixel. Filters should override it with a version that
+     * does not go through {@link Color} at all.
+     */
+    default int applyRgb(int i, int j, Image image) {
+        return apply(i, j, image).rgb();
+    }
+
+    /**
+     * Filters pixels (i, startJ) ... (i, endJ - 1) of a row straight into the destination buffer. Executors call
+     * it once per row segment instead of once per pixel, so filters should override it to hoist per-image work
+     * out of the pixel loop and to read/write the backing arrays directly when they can.
+     */
+    default void applySpan(int i, int startJ, int endJ, Image image, PixelBuffer destination) {
+        for (int j = startJ; j < endJ; j++) {
+            destination.setRgb(i, j, applyRgb(i, j, image));
+        }
+    }
+
+    /**
+     * @return the pixel layout this filter runs fastest on, callers may convert their image with
+     * {@link Image#toLayout(PixelLayout)} before handing it to an executor.
+     */
+    default PixelLayout preferredLayout() {
+        return PixelLayout.PACKED;
+    }
+
+    /**
+     * Builds whatever per-image state the filter keeps (displacement maps, masks, summed-area tables) so that
+     * executors can call it once before going parallel instead of having every worker find it missing.
+     */
+    default void prepare(Image image) {
+    }
+
+    /**
+     * @return how this filter reads its source and what it costs per pixel, {@link FilterCapabilities#UNKNOWN}
+     * unless the filter says otherwise
+     */
+    default FilterCapabilities capabilities() {
+        return FilterCapabilities.UNKNOWN;
+    }
 }
@@ -0,0 +1,59 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+/**
+ * What a filter reads to produce one pixel and roughly how much it costs, so executors can pick partitions and
+ * chunk sizes without knowing the concrete filter.
+ *
+ * @param access        which source pixels an output pixel depends on
+ * @param radius        for NEIGHBOURHOOD, how far (in rows and columns) those pixels may be; 0 otherwise
+ * @param deterministic whether applying the filter twice to the same image gives the same pixels
+ * @param costPerPixel  rough work per output pixel, 1 being a few arithmetic operations on one pixel
+ */
+public record FilterCapabilities(Access access, int radius, boolean deterministic, int costPerPixel) {
+
+    public enum Access {
+        /**
+         * Output (i, j) only depends on input (i, j).
+         */
+        POINTWISE,
+        /**
+         * Output (i, j) depends on the input pixels at most {@code radius} rows and columns away.
+         */
+        NEIGHBOURHOOD,
+        /**
+         * Output (i, j) may come from anywhere in the image.
+         */
+        GATHER
+    }
+
+    /**
+     * What executors assume of a filter that does not describe itself.
+     */
+    public static final FilterCapabilities UNKNOWN = new FilterCapabilities(Access.GATHER, 0, false, 1);
+
+    public static FilterCapabilities pointwise(int costPerPixel) {
+        return new FilterCapabilities(Access.POINTWISE, 0, true, costPerPixel);
+    }
+
+    public static FilterCapabilities neighbourhood(int radius, int costPerPixel) {
+        return new FilterCapabilities(Access.NEIGHBOURHOOD, radius, true, costPerPixel);
+    }
+
+    public static FilterCapabilities gather(boolean deterministic, int costPerPixel) {
+        return new FilterCapabilities(Access.GATHER, 0, deterministic, costPerPixel);
+    }
+
+    /**
+     * @return whether the filter can be fused with other point filters into a single pass
+     */
+    public boolean fusable() {
+        return access == Access.POINTWISE && deterministic;
+    }
+
+    /**
+     * @return the rows a region needs around it to be filtered on its own
+     */
+    public int halo() {
+        return access == Access.NEIGHBOURHOOD ? radius : 0;
+    }
+}
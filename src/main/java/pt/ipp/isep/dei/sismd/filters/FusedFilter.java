@@ -0,0 +1,93 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.Image;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Several point filters fused into one: each pixel goes through the whole chain in a single pass, with no
+ * intermediate image. Gives exactly what running the filters one after the other gives.
+ */
+public class FusedFilter implements PointFilter {
+
+    private final PointFilter[] filters;
+
+    // composed on first use; threads racing there compose equal tables and keep either
+    private volatile Optional<LookupTable> lookupTable;
+
+    private FusedFilter(PointFilter[] filters) {
+        this.filters = filters;
+    }
+
+    /**
+     * @param filters the filters, in the order they would be applied one after the other
+     * @return the fused filter
+     */
+    public static FusedFilter of(PointFilter... filters) {
+        List<PointFilter> flattened = new ArrayList<>(filters.length);
+        for (PointFilter filter : filters) {
+            if (filter instanceof FusedFilter fused) {
+                flattened.addAll(fused.filters());
+            } else {
+                flattened.add(filter);
+            }
+        }
+        if (flattened.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to fuse");
+        }
+        return new FusedFilter(flattened.toArray(new PointFilter[0]));
+    }
+
+    public List<PointFilter> filters() {
+        return List.of(filters);
+    }
+
+    @Override
+    public int applyToRgb(int rgb) {
+        for (PointFilter filter : filters) {
+            rgb = filter.applyToRgb(rgb);
+        }
+        return rgb;
+    }
+
+    @Override
+    public Color apply(int i, int j, Image image) {
+        return Color.ofRgb(applyRgb(i, j, image));
+    }
+
+    @Override
+    public FilterCapabilities capabilities() {
+        int cost = 0;
+        boolean deterministic = true;
+        for (PointFilter filter : filters) {
+            cost += filter.capabilities().costPerPixel();
+            deterministic &= filter.capabilities().deterministic();
+        }
+        return new FilterCapabilities(FilterCapabilities.Access.POINTWISE, 0, deterministic, cost);
+    }
+
+    /**
+     * @return the composition of the filters' tables, when every filter has one and they compose into a single
+     * table (see {@link LookupTable#andThen(LookupTable)}). Composed once, on the first call.
+     */
+    @Override
+    public Optional<LookupTable> lookupTable() {
+        Optional<LookupTable> table = lookupTable;
+        if (table == null) {
+            lookupTable = table = compose();
+        }
+        return table;
+    }
+
+    private Optional<LookupTable> compose() {
+        Optional<LookupTable> table = filters[0].lookupTable();
+        for (int k = 1; k < filters.length && table.isPresent(); k++) {
+            Optional<LookupTable> next = filters[k].lookupTable();
+            table = next.isPresent() ? table.get().andThen(next.get()) : Optional.empty();
+        }
+        return table;
+    }
+}
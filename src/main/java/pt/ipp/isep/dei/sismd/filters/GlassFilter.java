@@ -2,32 +2,107 @@ package pt.ipp.isep.dei.sismd.filters;
 
 import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Replaces each pixel with a random one nearby. The offsets are a hash of (seed, i, j) rather than draws from a
+ * shared generator, so workers never contend and a given seed produces the same image whatever the executor or
+ * the order pixels are visited in.
+ */
 public class GlassFilter implements Filter {
 
     private int distance = 20;
-    private final Random rand = new Random();
-    int numberOfRows;
-    int numberOfColumns;
+    private final long seed;
 
-    public GlassFilter(){};
+    public GlassFilter() {
+        this.seed = ThreadLocalRandom.current().nextLong();
+    }
 
     public GlassFilter(int distance) {
+        this(distance, ThreadLocalRandom.current().nextLong());
+    }
+
+    public GlassFilter(int distance, long seed) {
         this.distance = distance;
+        this.seed = seed;
+    }
+
+    public long seed() {
+        return seed;
     }
 
     @Override
-    public Color apply(int i, int j, Image imageToProcess){
-        this.numberOfColumns = imageToProcess.width();
-        this.numberOfRows = imageToProcess.height();
-        int offsetI = rand.nextInt(distance) - distance * 2;
-        int offsetJ = rand.nextInt(distance) - distance * 2;
+    public FilterCapabilities capabilities() {
+        return FilterCapabilities.gather(true, 3);
+    }
 
-        int randomI = Math.min(Math.max(0,i + offsetI), numberOfRows - 1);
-        int randomJ = Math.min(Math.max(0,j + offsetJ), numberOfColumns - 1);
+    @Override
+    public Color apply(int i, int j, Image imageToProcess){
+        long offset = offset(i, j);
+        int randomI = Math.clamp(i + rowOffset(offset), 0, imageToProcess.height() - 1);
+        int randomJ = Math.clamp(j + columnOffset(offset), 0, imageToProcess.width() - 1);
 
         return imageToProcess.obtainPixel(randomI, randomJ);
     }
+
+    @Override
+    public int applyRgb(int i, int j, Image imageToProcess){
+        long offset = offset(i, j);
+        int randomI = Math.clamp(i + rowOffset(offset), 0, imageToProcess.height() - 1);
+        int randomJ = Math.clamp(j + columnOffset(offset), 0, imageToProcess.width() - 1);
+
+        return imageToProcess.obtainRgb(randomI, randomJ);
+    }
+
+    @Override
+    public void applySpan(int i, int startJ, int endJ, Image imageToProcess, PixelBuffer destination) {
+        int lastRow = imageToProcess.height() - 1;
+        int lastColumn = imageToProcess.width() - 1;
+        for (int j = startJ; j < endJ; j++) {
+            long offset = offset(i, j);
+            int randomI = Math.clamp(i + rowOffset(offset), 0, lastRow);
+            int randomJ = Math.clamp(j + columnOffset(offset), 0, lastColumn);
+
+            destination.setRgb(i, j, imageToProcess.obtainRgb(randomI, randomJ));
+        }
+    }
+
+    /**
+     * @return where pixel (i, j) is copied from, relative to it: the row offset in the high 32 bits and the
+     * column offset in the low 32, see {@link #rowOffset(long)} and {@link #columnOffset(long)}
+     */
+    private long offset(int i, int j) {
+        long random = randomOf(i, j);
+        int offsetI = bounded(random >>> 32) - distance * 2;
+        int offsetJ = bounded(random & 0xFFFFFFFFL) - distance * 2;
+        return ((long) offsetI << 32) | (offsetJ & 0xFFFFFFFFL);
+    }
+
+    private static int rowOffset(long offset) {
+        return (int) (offset >> 32);
+    }
+
+    private static int columnOffset(long offset) {
+        return (int) offset;
+    }
+
+    /**
+     * SplitMix64 finaliser over the pixel's position, i.e. the value SplittableRandom would produce if every
+     * pixel had its own stream.
+     */
+    private long randomOf(int i, int j) {
+        long z = seed + (((long) i << 32) | (j & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return a value in [0, distance) from 32 random bits
+     */
+    private int bounded(long bits) {
+        return (int) ((bits * distance) >>> 32);
+    }
 }
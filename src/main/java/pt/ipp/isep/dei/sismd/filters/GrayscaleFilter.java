@@ -2,8 +2,16 @@ package pt.ipp.isep.dei.sismd.filters;
 
 import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelLayout;
+import pt.ipp.isep.dei.sismd.domain.PlanarPixelBuffer;
 
-public class GrayscaleFilter implements Filter {
+import java.util.Optional;
+
+public class GrayscaleFilter implements PointFilter, PlanarFilter {
+
+    private static final LookupTable LOOKUP_TABLE = LookupTable.ofChannelSum(sum -> Color.rgb(sum / 3, sum / 3, sum / 3));
 
     @Override
     public Color apply(int i, int j, Image image) {
@@ -17,4 +25,56 @@ public class GrayscaleFilter implements Filter {
 
         return new Color(avg, avg, avg);
     }
+
+    @Override
+    public int applyToRgb(int rgb) {
+        int avg = (Color.red(rgb) + Color.green(rgb) + Color.blue(rgb)) / 3;
+        return Color.rgb(avg, avg, avg);
+    }
+
+    @Override
+    public Optional<LookupTable> lookupTable() {
+        return Optional.of(LOOKUP_TABLE);
+    }
+
+    @Override
+    public void applySpan(int i, int startJ, int endJ, Image image, PixelBuffer destination) {
+        if (Simd.ENABLED && image.pixels() instanceof PackedPixelBuffer source
+                && destination instanceof PackedPixelBuffer output) {
+            int rowOffset = source.indexOf(i, 0);
+            VectorKernels.grayscale(source.pixels(), output.pixels(), rowOffset + startJ, rowOffset + endJ);
+            return;
+        }
+        PointFilter.super.applySpan(i, startJ, endJ, image, destination);
+    }
+
+    @Override
+    public void applyRows(PlanarPixelBuffer source, PlanarPixelBuffer destination, int startRow, int endRow) {
+        if (Simd.ENABLED) {
+            VectorKernels.grayscale(source.red(), source.green(), source.blue(),
+                    destination.red(), destination.green(), destination.blue(),
+                    startRow * source.width(), endRow * source.width());
+            return;
+        }
+        byte[] red = source.red();
+        byte[] green = source.green();
+        byte[] blue = source.blue();
+        byte[] redOut = destination.red();
+        byte[] greenOut = destination.green();
+        byte[] blueOut = destination.blue();
+        int to = endRow * source.width();
+        for (int k = startRow * source.width(); k < to; k++) {
+            int sum = (red[k] & 0xFF) + (green[k] & 0xFF) + (blue[k] & 0xFF);
+            // sum / 3 as multiply and shift, exact for sum <= 765 and friendlier to vectorization than idiv
+            byte avg = (byte) ((sum * 0xAAAB) >>> 17);
+            redOut[k] = avg;
+            greenOut[k] = avg;
+            blueOut[k] = avg;
+        }
+    }
+
+    @Override
+    public PixelLayout preferredLayout() {
+        return PixelLayout.PLANAR;
+    }
 }
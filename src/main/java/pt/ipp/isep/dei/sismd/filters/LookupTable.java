@@ -0,0 +1,148 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.PlanarPixelBuffer;
+
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A point filter compiled into tables, either one 256-entry table per channel (each output channel depends on
+ * the same input channel only, e.g. {@link BrighterFilter}) or a single table indexed by red + green + blue
+ * (grayscale-style mixes, e.g. {@link GrayscaleFilter}).
+ * <p>
+ * Immutable once built, so one instance is safely shared by every worker thread.
+ */
+public final class LookupTable {
+
+    private static final int CHANNEL_VALUES = 256;
+    private static final int CHANNEL_SUM_VALUES = 3 * 255 + 1;
+
+    // per-channel tables hold the output already shifted into place, so a pixel is red | green | blue
+    private final int[] red;
+    private final int[] green;
+    private final int[] blue;
+    private final byte[] redBytes;
+    private final byte[] greenBytes;
+    private final byte[] blueBytes;
+    // channel-sum table holds whole 0xRRGGBB output pixels
+    private final int[] channelSum;
+
+    private LookupTable(IntUnaryOperator red, IntUnaryOperator green, IntUnaryOperator blue) {
+        this.red = new int[CHANNEL_VALUES];
+        this.green = new int[CHANNEL_VALUES];
+        this.blue = new int[CHANNEL_VALUES];
+        this.redBytes = new byte[CHANNEL_VALUES];
+        this.greenBytes = new byte[CHANNEL_VALUES];
+        this.blueBytes = new byte[CHANNEL_VALUES];
+        for (int value = 0; value < CHANNEL_VALUES; value++) {
+            this.red[value] = red.applyAsInt(value) << 16;
+            this.green[value] = green.applyAsInt(value) << 8;
+            this.blue[value] = blue.applyAsInt(value);
+            this.redBytes[value] = (byte) red.applyAsInt(value);
+            this.greenBytes[value] = (byte) green.applyAsInt(value);
+            this.blueBytes[value] = (byte) blue.applyAsInt(value);
+        }
+        this.channelSum = null;
+    }
+
+    private LookupTable(IntUnaryOperator channelSum) {
+        this.red = null;
+        this.green = null;
+        this.blue = null;
+        this.redBytes = null;
+        this.greenBytes = null;
+        this.blueBytes = null;
+        this.channelSum = new int[CHANNEL_SUM_VALUES];
+        for (int sum = 0; sum < CHANNEL_SUM_VALUES; sum++) {
+            this.channelSum[sum] = channelSum.applyAsInt(sum);
+        }
+    }
+
+    /**
+     * @param red   output red for each input red, in [0, 255]
+     * @param green output green for each input green, in [0, 255]
+     * @param blue  output blue for each input blue, in [0, 255]
+     */
+    public static LookupTable perChannel(IntUnaryOperator red, IntUnaryOperator green, IntUnaryOperator blue) {
+        return new LookupTable(red, green, blue);
+    }
+
+    /**
+     * @param channelSum output pixel, packed as 0xRRGGBB, for each red + green + blue in [0, 765]
+     */
+    public static LookupTable ofChannelSum(IntUnaryOperator channelSum) {
+        return new LookupTable(channelSum);
+    }
+
+    /**
+     * @return a table giving {@code next.apply(this.apply(rgb))}, if the two compose into one: anything after a
+     * channel-sum table, or per-channel after per-channel. A channel-sum table after a per-channel one does not
+     * (the input sum no longer determines the output).
+     */
+    public Optional<LookupTable> andThen(LookupTable next) {
+        if (channelSum != null) {
+            return Optional.of(ofChannelSum(sum -> next.apply(channelSum[sum])));
+        }
+        if (next.channelSum == null) {
+            return Optional.of(perChannel(value -> Color.red(next.apply(red[value])),
+                    value -> Color.green(next.apply(green[value])),
+                    value -> Color.blue(next.apply(blue[value]))));
+        }
+        return Optional.empty();
+    }
+
+    public int apply(int rgb) {
+        if (channelSum != null) {
+            return channelSum[Color.red(rgb) + Color.green(rgb) + Color.blue(rgb)];
+        }
+        return red[Color.red(rgb)] | green[Color.green(rgb)] | blue[Color.blue(rgb)];
+    }
+
+    /**
+     * Applies the table to source[from, to) into destination[from, to).
+     */
+    public void apply(int[] source, int[] destination, int from, int to) {
+        if (channelSum != null) {
+            for (int k = from; k < to; k++) {
+                int rgb = source[k];
+                destination[k] = channelSum[Color.red(rgb) + Color.green(rgb) + Color.blue(rgb)];
+            }
+            return;
+        }
+        for (int k = from; k < to; k++) {
+            int rgb = source[k];
+            destination[k] = red[Color.red(rgb)] | green[Color.green(rgb)] | blue[Color.blue(rgb)];
+        }
+    }
+
+    /**
+     * Applies the table to plane positions [from, to) of source into destination.
+     */
+    public void apply(PlanarPixelBuffer source, PlanarPixelBuffer destination, int from, int to) {
+        byte[] redIn = source.red();
+        byte[] greenIn = source.green();
+        byte[] blueIn = source.blue();
+        byte[] redOut = destination.red();
+        byte[] greenOut = destination.green();
+        byte[] blueOut = destination.blue();
+        if (channelSum != null) {
+            for (int k = from; k < to; k++) {
+                int rgb = channelSum[(redIn[k] & 0xFF) + (greenIn[k] & 0xFF) + (blueIn[k] & 0xFF)];
+                redOut[k] = (byte) Color.red(rgb);
+                greenOut[k] = (byte) Color.green(rgb);
+                blueOut[k] = (byte) Color.blue(rgb);
+            }
+            return;
+        }
+        for (int k = from; k < to; k++) {
+            redOut[k] = redBytes[redIn[k] & 0xFF];
+        }
+        for (int k = from; k < to; k++) {
+            greenOut[k] = greenBytes[greenIn[k] & 0xFF];
+        }
+        for (int k = from; k < to; k++) {
+            blueOut[k] = blueBytes[blueIn[k] & 0xFF];
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelLayout;
+import pt.ipp.isep.dei.sismd.domain.PlanarPixelBuffer;
+
+import java.util.Optional;
+
+/**
+ * Runs a compiled {@link PointFilter} through its {@link LookupTable}: a few table reads per pixel instead of
+ * the filter's arithmetic. Executors recognize it and hand it whole row ranges.
+ */
+public class LookupTableFilter implements PointFilter {
+
+    private final PointFilter filter;
+    private final LookupTable table;
+
+    public LookupTableFilter(PointFilter filter) {
+        this(filter, filter.lookupTable()
+                .orElseThrow(() -> new IllegalArgumentException(filter.getClass().getSimpleName() + " has no lookup table")));
+    }
+
+    /**
+     * @param table filter's table, for callers that already have it
+     */
+    public LookupTableFilter(PointFilter filter, LookupTable table) {
+        this.filter = filter;
+        this.table = table;
+    }
+
+    public PointFilter filter() {
+        return filter;
+    }
+
+    public LookupTable table() {
+        return table;
+    }
+
+    @Override
+    public int applyToRgb(int rgb) {
+        return table.apply(rgb);
+    }
+
+    @Override
+    public FilterCapabilities capabilities() {
+        return FilterCapabilities.pointwise(1);
+    }
+
+    @Override
+    public Optional<LookupTable> lookupTable() {
+        return Optional.of(table);
+    }
+
+    @Override
+    public Color apply(int i, int j, Image image) {
+        return Color.ofRgb(applyRgb(i, j, image));
+    }
+
+    /**
+     * Filters rows [startRow, endRow) in one go when source and destination share the packed or planar layout,
+     * pixel by pixel through the table otherwise.
+     */
+    public void applyRows(Image image, PixelBuffer destination, int startRow, int endRow) {
+        int from = startRow * image.width();
+        int to = endRow * image.width();
+        if (image.pixels() instanceof PackedPixelBuffer source && destination instanceof PackedPixelBuffer output) {
+            table.apply(source.pixels(), output.pixels(), from, to);
+        } else if (image.pixels() instanceof PlanarPixelBuffer source && destination instanceof PlanarPixelBuffer output) {
+            table.apply(source, output, from, to);
+        } else {
+            for (int i = startRow; i < endRow; i++) {
+                applySpan(i, 0, image.width(), image, destination);
+            }
+        }
+    }
+
+    @Override
+    public PixelLayout preferredLayout() {
+        return PixelLayout.PACKED;
+    }
+}
@@ -0,0 +1,23 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+
+import java.util.Optional;
+
+/**
+ * A region filter that leaves every pixel outside a mask unchanged. Its {@link #applyRegion} copies unmatched
+ * pixels in bulk and only filters the matched ones, and executors may use the mask to skip regions and to
+ * balance work by matches rather than by area.
+ */
+public interface MaskedFilter extends RegionFilter {
+
+    /**
+     * @return the pixels of image this filter changes, built once per image; empty when it changes every pixel
+     */
+    Optional<PixelMask> mask(Image image);
+
+    /**
+     * @return the rough cost of filtering one matched pixel, in units of copying one pixel
+     */
+    int matchCost();
+}
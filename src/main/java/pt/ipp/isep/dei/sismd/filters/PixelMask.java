@@ -0,0 +1,184 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * One bit per pixel telling whether it matches a condition, stored row by row in 64-bit words, plus the number
+ * of matches before each row so region counts and work estimates are cheap.
+ */
+public class PixelMask {
+
+    // guarded by itself; masks are built outside the lock
+    private static final Map<Image, Map<RgbPredicate, PixelMask>> CACHE = new WeakHashMap<>();
+
+    static {
+        PixelBufferPool.onGiveBack(PixelMask::evict);
+    }
+
+    private final int height;
+    private final int width;
+    private final int wordsPerRow;
+    private final long[] bits;
+    private final int[] matchesBefore;
+
+    private PixelMask(int height, int width) {
+        this.height = height;
+        this.width = width;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = new long[height * wordsPerRow];
+        this.matchesBefore = new int[height + 1];
+    }
+
+    /**
+     * @return the mask of predicate over image, built with {@link #of} on first use and cached for as long as the
+     * image is reachable and not given back to a {@link PixelBufferPool}
+     */
+    public static PixelMask cached(Image image, RgbPredicate predicate) {
+        PixelMask mask;
+        synchronized (CACHE) {
+            mask = CACHE.getOrDefault(image, Map.of()).get(predicate);
+        }
+        if (mask != null) {
+            return mask;
+        }
+        PixelMask built = of(image, predicate);
+        synchronized (CACHE) {
+            mask = CACHE.computeIfAbsent(image, key -> new WeakHashMap<>()).putIfAbsent(predicate, built);
+        }
+        return mask != null ? mask : built;
+    }
+
+    public static void evict(Image image) {
+        synchronized (CACHE) {
+            CACHE.remove(image);
+        }
+    }
+
+    /**
+     * Evaluates predicate on every pixel of image, rows in parallel.
+     */
+    public static PixelMask of(Image image, RgbPredicate predicate) {
+        PixelBuffer pixels = image.pixels();
+        PixelMask mask = new PixelMask(pixels.height(), pixels.width());
+        IntStream.range(0, mask.height).parallel().forEach(i -> {
+            int rowOffset = i * mask.wordsPerRow;
+            int matches = 0;
+            for (int j = 0; j < mask.width; j++) {
+                if (predicate.test(pixels.getRgb(i, j))) {
+                    mask.bits[rowOffset + (j >>> 6)] |= 1L << j;
+                    matches++;
+                }
+            }
+            mask.matchesBefore[i + 1] = matches;
+        });
+        for (int i = 0; i < mask.height; i++) {
+            mask.matchesBefore[i + 1] += mask.matchesBefore[i];
+        }
+        return mask;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public boolean get(int i, int j) {
+        return (bits[i * wordsPerRow + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    public int count() {
+        return matchesBefore[height];
+    }
+
+    public int count(int startRow, int endRow) {
+        return matchesBefore[endRow] - matchesBefore[startRow];
+    }
+
+    public int count(int startRow, int endRow, int startCol, int endCol) {
+        if (startCol == 0 && endCol == width) {
+            return count(startRow, endRow);
+        }
+        int matches = 0;
+        for (int i = startRow; i < endRow; i++) {
+            for (int j = nextMatch(i, startCol, endCol); j < endCol; j = nextMatch(i, j + 1, endCol)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return whether any pixel of [startRow, endRow) x [startCol, endCol) matches
+     */
+    public boolean anyIn(int startRow, int endRow, int startCol, int endCol) {
+        if (count(startRow, endRow) == 0) {
+            return false;
+        }
+        for (int i = startRow; i < endRow; i++) {
+            if (nextMatch(i, startCol, endCol) < endCol) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the first matching column of row i in [fromCol, endCol), or endCol if there is none
+     */
+    public int nextMatch(int i, int fromCol, int endCol) {
+        return next(i, fromCol, endCol, 0L);
+    }
+
+    /**
+     * @return the first non-matching column of row i in [fromCol, endCol), or endCol if there is none
+     */
+    public int nextMiss(int i, int fromCol, int endCol) {
+        return next(i, fromCol, endCol, -1L);
+    }
+
+    private int next(int i, int fromCol, int endCol, long flip) {
+        if (fromCol >= endCol) {
+            return endCol;
+        }
+        int rowOffset = i * wordsPerRow;
+        int word = fromCol >>> 6;
+        long current = (bits[rowOffset + word] ^ flip) & (-1L << fromCol);
+        while (current == 0) {
+            if (++word << 6 >= endCol) {
+                return endCol;
+            }
+            current = bits[rowOffset + word] ^ flip;
+        }
+        return Math.min((word << 6) + Long.numberOfTrailingZeros(current), endCol);
+    }
+
+    /**
+     * Splits the rows into bands of about the same work, counting each match as matchCost pixels that are only
+     * copied.
+     *
+     * @return bands + 1 row boundaries, the first 0 and the last height
+     */
+    public int[] rowBands(int bands, int matchCost) {
+        int[] boundaries = new int[bands + 1];
+        long total = (long) height * width + (long) count() * matchCost;
+        int row = 0;
+        for (int band = 1; band < bands; band++) {
+            long target = total * band / bands;
+            while (row < height && (long) row * width + (long) matchesBefore[row] * matchCost < target) {
+                row++;
+            }
+            boundaries[band] = row;
+        }
+        boundaries[bands] = height;
+        return boundaries;
+    }
+}
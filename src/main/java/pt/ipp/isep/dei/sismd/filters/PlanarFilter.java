@@ -0,0 +1,15 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.PlanarPixelBuffer;
+
+/**
+ * A filter that can process whole rows of a {@link PlanarPixelBuffer} channel by channel, in loops the JIT
+ * can vectorize. Must produce exactly what {@link Filter#applyRgb} produces for the same pixels.
+ */
+public interface PlanarFilter extends Filter {
+
+    /**
+     * Filters rows [startRow, endRow) of source into the same rows of destination.
+     */
+    void applyRows(PlanarPixelBuffer source, PlanarPixelBuffer destination, int startRow, int endRow);
+}
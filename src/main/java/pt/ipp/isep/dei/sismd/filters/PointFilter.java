@@ -0,0 +1,84 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A filter whose output pixel is a pure function of the input pixel's colour, nothing else.
+ */
+public interface PointFilter extends Filter {
+
+    /**
+     * @param rgb the input pixel packed as 0xRRGGBB
+     * @return the output pixel packed as 0xRRGGBB
+     */
+    int applyToRgb(int rgb);
+
+    /**
+     * @return the lookup table equivalent to {@link #applyToRgb(int)}, if this filter can be compiled into one.
+     * Built once per filter instance, run it through {@link LookupTableFilter}.
+     */
+    default Optional<LookupTable> lookupTable() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return a filter running this one and then {@code next} in a single pass, see {@link FusedFilter}.
+     */
+    default FusedFilter andThen(PointFilter next) {
+        return FusedFilter.of(this, next);
+    }
+
+    /**
+     * Wraps a colour function, e.g. a custom tone tweak, as a point filter so it can be fused with others.
+     *
+     * @param function maps an input 0xRRGGBB pixel to an output 0xRRGGBB pixel
+     */
+    static PointFilter of(IntUnaryOperator function) {
+        return new PointFilter() {
+            @Override
+            public int applyToRgb(int rgb) {
+                return function.applyAsInt(rgb);
+            }
+
+            @Override
+            public Color apply(int i, int j, Image image) {
+                return Color.ofRgb(applyRgb(i, j, image));
+            }
+        };
+    }
+
+    /**
+     * Point filters are pointwise by definition; deterministic unless they say otherwise.
+     */
+    @Override
+    default FilterCapabilities capabilities() {
+        return FilterCapabilities.pointwise(1);
+    }
+
+    @Override
+    default int applyRgb(int i, int j, Image image) {
+        return applyToRgb(image.obtainRgb(i, j));
+    }
+
+    @Override
+    default void applySpan(int i, int startJ, int endJ, Image image, PixelBuffer destination) {
+        if (image.pixels() instanceof PackedPixelBuffer source && destination instanceof PackedPixelBuffer output) {
+            int[] in = source.pixels();
+            int[] out = output.pixels();
+            int rowOffset = source.indexOf(i, 0);
+            for (int k = rowOffset + startJ; k < rowOffset + endJ; k++) {
+                out[k] = applyToRgb(in[k]);
+            }
+            return;
+        }
+        for (int j = startJ; j < endJ; j++) {
+            destination.setRgb(i, j, applyToRgb(image.obtainRgb(i, j)));
+        }
+    }
+}
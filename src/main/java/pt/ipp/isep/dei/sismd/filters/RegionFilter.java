@@ -0,0 +1,16 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+
+/**
+ * A filter that works better over a whole rectangle than row by row, typically because it carries state from
+ * one row to the next (sliding windows). Must produce exactly what {@link Filter#applyRgb} produces.
+ */
+public interface RegionFilter extends Filter {
+
+    /**
+     * Filters pixels [startRow, endRow) x [startCol, endCol) of image into the same pixels of destination.
+     */
+    void applyRegion(Image image, PixelBuffer destination, int startRow, int endRow, int startCol, int endCol);
+}
@@ -0,0 +1,18 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import pt.ipp.isep.dei.sismd.domain.Color;
+
+import java.util.function.Predicate;
+
+/**
+ * A pixel condition on packed 0xRRGGBB values, so testing it needs no {@link Color} per pixel.
+ */
+@FunctionalInterface
+public interface RgbPredicate {
+
+    boolean test(int rgb);
+
+    static RgbPredicate of(Predicate<Color> predicate) {
+        return rgb -> predicate.test(Color.ofRgb(rgb));
+    }
+}
@@ -0,0 +1,18 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+/**
+ * Whether the filters may use {@link VectorKernels}. The Vector API is an incubator module, so it is only there
+ * when the JVM runs with {@code --add-modules jdk.incubator.vector}; without it, or with {@code -Dsismd.simd=false},
+ * every filter keeps to its scalar loops, which compute the same bits.
+ * <p>
+ * Callers must only touch {@link VectorKernels} behind {@link #ENABLED}, so the class is never loaded when the
+ * module is missing.
+ */
+final class Simd {
+
+    static final boolean ENABLED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && Boolean.parseBoolean(System.getProperty("sismd.simd", "true"));
+
+    private Simd() {
+    }
+}
@@ -2,25 +2,91 @@ package pt.ipp.isep.dei.sismd.filters;
 
 import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+
+import java.util.stream.IntStream;
 
 public class SwirlFilter implements Filter {
 
-    private int intensity; //in %
+    /**
+     * EXACT uses {@link Math#sin}/{@link Math#cos}. FAST reads sin/cos from a 4096-entry table with linear
+     * interpolation and rotates in 15-bit fixed point; its source coordinates are off by at most one pixel in each
+     * direction from EXACT for images up to 16k x 16k (the error grows as ~3e-5 pixels per pixel of distance from
+     * the centre, on top of the rounding to whole pixels).
+     */
+    public enum Mode {
+        EXACT,
+        FAST
+    }
+
+    private static final int FRACTION_BITS = 15;
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int STEP_BITS = 8;
+    private static final int[] SINE = new int[TABLE_SIZE + 1];
+
+    static {
+        for (int k = 0; k <= TABLE_SIZE; k++) {
+            SINE[k] = (int) Math.round(Math.sin(2 * Math.PI * k / TABLE_SIZE) * (1 << FRACTION_BITS));
+        }
+    }
+
+    private final int intensity; //in %
+    private final DisplacementMapCache cache;
+    private final Mode mode;
+    private final String cacheName;
+
+    // the map of the last image size, so pixels and rows of the same image skip the cache lookup
+    private volatile ResolvedMap resolved;
 
     public SwirlFilter(int intensity) {
+        this(intensity, Mode.EXACT);
+    }
+
+    public SwirlFilter(int intensity, Mode mode) {
+        this(intensity, mode, DisplacementMapCache.shared());
+    }
+
+    public SwirlFilter(int intensity, DisplacementMapCache cache) {
+        this(intensity, Mode.EXACT, cache);
+    }
+
+    public SwirlFilter(int intensity, Mode mode, DisplacementMapCache cache) {
         this.intensity = intensity;
+        this.mode = mode;
+        this.cache = cache;
+        this.cacheName = "swirl-" + mode;
     }
 
     public SwirlFilter() {
-        this.intensity = 100;
+        this(100);
     }
 
 
     private record ImageCoordinate(int x, int y) {
     }
 
+    /**
+     * @param map null when a map of this size does not fit in the cache
+     */
+    private record ResolvedMap(int height, int width, int[] map) {
+    }
+
+    /**
+     * Looks the displacement map up, or builds it, before the executor goes parallel.
+     */
+    @Override
+    public void prepare(Image image) {
+        displacementMap(image.height(), image.width());
+    }
+
     @Override
     public Color apply(int i, int j, Image image) {
+        if (mode == Mode.FAST) {
+            int index = fastSourceIndexOf(i, j, image.height(), image.width());
+            return image.obtainPixel(index / image.width(), index % image.width());
+        }
         var currentCoordinate = new ImageCoordinate(i, j);
         var centerCoordinate = getCenterCoordinate(image.height(), image.width());
         var swirlCoordinate = getSwirlCoordinateOf(currentCoordinate, centerCoordinate);
@@ -29,6 +95,128 @@ public class SwirlFilter implements Filter {
         return image.obtainPixel(validX, validY);
     }
 
+    @Override
+    public int applyRgb(int i, int j, Image image) {
+        int[] map = displacementMap(image.height(), image.width());
+        if (map != null) {
+            int index = map[i * image.width() + j];
+            return image.obtainRgb(index / image.width(), index % image.width());
+        }
+        int index = sourceIndexOf(i, j, image.height(), image.width());
+        return image.obtainRgb(index / image.width(), index % image.width());
+    }
+
+    /**
+     * Pixels come from anywhere along the swirl; once the displacement map is cached each one is a gather.
+     */
+    @Override
+    public FilterCapabilities capabilities() {
+        return FilterCapabilities.gather(true, mode == Mode.FAST ? 8 : 20);
+    }
+
+    /**
+     * Gathers the span through the cached displacement map, computing the swirl per pixel only when the image is
+     * too big for the cache.
+     */
+    @Override
+    public void applySpan(int i, int startJ, int endJ, Image image, PixelBuffer destination) {
+        int height = image.height();
+        int width = image.width();
+        int[] map = displacementMap(height, width);
+        if (map != null) {
+            int offset = i * width;
+            if (image.pixels() instanceof PackedPixelBuffer source && destination instanceof PackedPixelBuffer output) {
+                int[] sourcePixels = source.pixels();
+                int[] outputPixels = output.pixels();
+                for (int k = offset + startJ; k < offset + endJ; k++) {
+                    outputPixels[k] = sourcePixels[map[k]];
+                }
+            } else {
+                PixelBuffer source = image.pixels();
+                for (int j = startJ; j < endJ; j++) {
+                    int index = map[offset + j];
+                    destination.setRgb(i, j, source.getRgb(index / width, index % width));
+                }
+            }
+            return;
+        }
+        for (int j = startJ; j < endJ; j++) {
+            int index = sourceIndexOf(i, j, height, width);
+            destination.setRgb(i, j, image.obtainRgb(index / width, index % width));
+        }
+    }
+
+    /**
+     * @return for each pixel {@code i * width + j}, the index of the pixel it is copied from, or null when the
+     * map does not fit in the cache
+     */
+    int[] displacementMap(int height, int width) {
+        ResolvedMap last = resolved;
+        if (last != null && last.height() == height && last.width() == width) {
+            return last.map();
+        }
+        int[] map = cache.get(new DisplacementMapCache.Key(cacheName, height, width, intensity),
+                () -> buildDisplacementMap(height, width));
+        resolved = new ResolvedMap(height, width, map);
+        return map;
+    }
+
+    private int[] buildDisplacementMap(int height, int width) {
+        int[] map = new int[height * width];
+        IntStream.range(0, height).parallel().forEach(i -> {
+            for (int j = 0; j < width; j++) {
+                map[i * width + j] = sourceIndexOf(i, j, height, width);
+            }
+        });
+        return map;
+    }
+
+    private int sourceIndexOf(int i, int j, int height, int width) {
+        return mode == Mode.FAST ? fastSourceIndexOf(i, j, height, width) : exactSourceIndexOf(i, j, height, width);
+    }
+
+    private int exactSourceIndexOf(int i, int j, int height, int width) {
+        int centerX = (height - 1) / 2;
+        int centerY = (width - 1) / 2;
+        int dx = i - centerX;
+        int dy = j - centerY;
+        double distance = Math.sqrt((dx * dx) + (dy * dy));
+        double theta = (Math.PI / 256) * distance * (intensity / 100.0);
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        int xDash = (int) (dx * cos - dy * sin + centerX);
+        int yDash = (int) (dx * sin + dy * cos + centerY);
+        int validX = Math.max(0, Math.min(height - 1, xDash));
+        int validY = Math.max(0, Math.min(width - 1, yDash));
+        return validX * width + validY;
+    }
+
+    /**
+     * Same mapping as {@link #exactSourceIndexOf} with the angle measured in 1/2^20 of a turn and sin/cos looked
+     * up in {@link #SINE}. theta = pi/256 * distance * intensity/100 rad is distance * intensity * 2^11/100 units.
+     */
+    private int fastSourceIndexOf(int i, int j, int height, int width) {
+        int centerX = (height - 1) / 2;
+        int centerY = (width - 1) / 2;
+        int dx = i - centerX;
+        int dy = j - centerY;
+        double distance = Math.sqrt((dx * dx) + (dy * dy));
+        int angle = (int) (long) (distance * intensity * ((1 << (TABLE_BITS + STEP_BITS - 9)) / 100.0));
+        long sin = sine(angle);
+        long cos = sine(angle + (TABLE_SIZE << STEP_BITS) / 4);
+        long xDash = (dx * cos - dy * sin + ((long) centerX << FRACTION_BITS)) >> FRACTION_BITS;
+        long yDash = (dx * sin + dy * cos + ((long) centerY << FRACTION_BITS)) >> FRACTION_BITS;
+        int validX = (int) Math.max(0, Math.min(height - 1, xDash));
+        int validY = (int) Math.max(0, Math.min(width - 1, yDash));
+        return validX * width + validY;
+    }
+
+    private static int sine(int angle) {
+        int index = (angle >>> STEP_BITS) & (TABLE_SIZE - 1);
+        int step = angle & ((1 << STEP_BITS) - 1);
+        return SINE[index] + (((SINE[index + 1] - SINE[index]) * step) >> STEP_BITS);
+    }
+
     private ImageCoordinate getCenterCoordinate(int height, int width) {
         int xCenterCoordinate = (height - 1) / 2;
         int yCenterCoordinate = (width - 1) / 2;
@@ -0,0 +1,146 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+import pt.ipp.isep.dei.sismd.domain.Color;
+
+/**
+ * Vector API versions of the filters' inner loops. Each kernel covers [from, to) with full vectors and finishes
+ * the tail with the same scalar arithmetic, and produces exactly the bits of the scalar loop it replaces.
+ * <p>
+ * Only reachable through {@link Simd#ENABLED}.
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    // byte planes are widened into a full preferred int vector, one byte per int lane; below 8 lanes (128-bit
+    // NEON/SSE) there is no byte shape that small and the planar kernels keep to their scalar loop
+    private static final VectorSpecies<Integer> WIDE_INTS = INTS;
+    private static final VectorSpecies<Byte> NARROW_BYTES = WIDE_INTS.length() >= 8
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(WIDE_INTS.length() * Byte.SIZE))
+            : null;
+
+    private VectorKernels() {
+    }
+
+    static void brighten(int[] source, int[] destination, int from, int to, int brightness) {
+        int k = from;
+        for (int bound = from + INTS.loopBound(to - from); k < bound; k += INTS.length()) {
+            IntVector pixels = IntVector.fromArray(INTS, source, k);
+            IntVector red = pixels.lanewise(VectorOperators.LSHR, 16).and(0xFF).add(brightness).min(255);
+            IntVector green = pixels.lanewise(VectorOperators.LSHR, 8).and(0xFF).add(brightness).min(255);
+            IntVector blue = pixels.and(0xFF).add(brightness).min(255);
+            red.lanewise(VectorOperators.LSHL, 16)
+                    .or(green.lanewise(VectorOperators.LSHL, 8))
+                    .or(blue)
+                    .intoArray(destination, k);
+        }
+        for (; k < to; k++) {
+            int rgb = source[k];
+            destination[k] = Color.rgb(Math.min(Color.red(rgb) + brightness, 255),
+                    Math.min(Color.green(rgb) + brightness, 255),
+                    Math.min(Color.blue(rgb) + brightness, 255));
+        }
+    }
+
+    /**
+     * Unsigned saturating add on bytes: min(x, 255 - b) + b, with the unsigned minimum done as a signed one on
+     * values flipped by 0x80.
+     *
+     * @param brightness in [0, 255]
+     */
+    static void brighten(byte[] source, byte[] destination, int from, int to, int brightness) {
+        byte limit = (byte) ((255 - brightness) ^ 0x80);
+        int k = from;
+        for (int bound = from + BYTES.loopBound(to - from); k < bound; k += BYTES.length()) {
+            ByteVector.fromArray(BYTES, source, k)
+                    .lanewise(VectorOperators.XOR, (byte) 0x80)
+                    .min(limit)
+                    .lanewise(VectorOperators.XOR, (byte) 0x80)
+                    .add((byte) brightness)
+                    .intoArray(destination, k);
+        }
+        for (; k < to; k++) {
+            destination[k] = (byte) Math.min((source[k] & 0xFF) + brightness, 255);
+        }
+    }
+
+    static void grayscale(int[] source, int[] destination, int from, int to) {
+        int k = from;
+        for (int bound = from + INTS.loopBound(to - from); k < bound; k += INTS.length()) {
+            IntVector pixels = IntVector.fromArray(INTS, source, k);
+            IntVector average = pixels.lanewise(VectorOperators.LSHR, 16).and(0xFF)
+                    .add(pixels.lanewise(VectorOperators.LSHR, 8).and(0xFF))
+                    .add(pixels.and(0xFF))
+                    .mul(0xAAAB)
+                    .lanewise(VectorOperators.LSHR, 17);
+            average.lanewise(VectorOperators.LSHL, 16)
+                    .or(average.lanewise(VectorOperators.LSHL, 8))
+                    .or(average)
+                    .intoArray(destination, k);
+        }
+        for (; k < to; k++) {
+            int rgb = source[k];
+            int average = (Color.red(rgb) + Color.green(rgb) + Color.blue(rgb)) / 3;
+            destination[k] = Color.rgb(average, average, average);
+        }
+    }
+
+    static void grayscale(byte[] red, byte[] green, byte[] blue, byte[] redOut, byte[] greenOut, byte[] blueOut,
+                          int from, int to) {
+        int k = from;
+        int bound = NARROW_BYTES == null ? from : from + NARROW_BYTES.loopBound(to - from);
+        for (; k < bound; k += NARROW_BYTES.length()) {
+            IntVector sum = widen(red, k).add(widen(green, k)).add(widen(blue, k));
+            ByteVector average = (ByteVector) sum.mul(0xAAAB)
+                    .lanewise(VectorOperators.LSHR, 17)
+                    .convertShape(VectorOperators.I2B, NARROW_BYTES, 0);
+            average.intoArray(redOut, k);
+            average.intoArray(greenOut, k);
+            average.intoArray(blueOut, k);
+        }
+        for (; k < to; k++) {
+            byte average = (byte) ((((red[k] & 0xFF) + (green[k] & 0xFF) + (blue[k] & 0xFF)) * 0xAAAB) >>> 17);
+            redOut[k] = average;
+            greenOut[k] = average;
+            blueOut[k] = average;
+        }
+    }
+
+    private static IntVector widen(byte[] plane, int k) {
+        return (IntVector) ByteVector.fromArray(NARROW_BYTES, plane, k)
+                .convertShape(VectorOperators.ZERO_EXTEND_B2I, WIDE_INTS, 0);
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) the channels of {@code pixels[offset, offset + columns)} to the per-column
+     * sums of a box blur window.
+     */
+    static void accumulateRow(int[] pixels, int offset, int[] redColumns, int[] greenColumns, int[] blueColumns,
+                              int sign) {
+        int columns = redColumns.length;
+        int c = 0;
+        for (int bound = INTS.loopBound(columns); c < bound; c += INTS.length()) {
+            IntVector rgb = IntVector.fromArray(INTS, pixels, offset + c);
+            IntVector.fromArray(INTS, redColumns, c)
+                    .add(rgb.lanewise(VectorOperators.LSHR, 16).and(0xFF).mul(sign))
+                    .intoArray(redColumns, c);
+            IntVector.fromArray(INTS, greenColumns, c)
+                    .add(rgb.lanewise(VectorOperators.LSHR, 8).and(0xFF).mul(sign))
+                    .intoArray(greenColumns, c);
+            IntVector.fromArray(INTS, blueColumns, c)
+                    .add(rgb.and(0xFF).mul(sign))
+                    .intoArray(blueColumns, c);
+        }
+        for (; c < columns; c++) {
+            int rgb = pixels[offset + c];
+            redColumns[c] += sign * Color.red(rgb);
+            greenColumns[c] += sign * Color.green(rgb);
+            blueColumns[c] += sign * Color.blue(rgb);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package pt.ipp.isep.dei.sismd;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelLayout;
+import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.GrayscaleFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawImageFormatTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void convertAndOpen() {
+        File rawFile = new File(tempDir, "turtle" + RawImageFormat.EXTENSION);
+        RawImageFormat.convert(new File(filePath), rawFile);
+        Image image = Utils.loadImage(new File(filePath));
+        Image mapped = RawImageFormat.open(rawFile);
+        assertEquals(PixelLayout.MAPPED, mapped.layout());
+        assertTrue(Arrays.deepEquals(image.getPixelMatrix(), mapped.getPixelMatrix()));
+
+        Filter grayscale = new GrayscaleFilter();
+        Image expected = new SequentialExecutor(grayscale).apply(image);
+        assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), new ForkJoinExecutor(grayscale).apply(mapped).getPixelMatrix()));
+    }
+
+    @Test
+    void writeAnyLayout() {
+        File rawFile = new File(tempDir, "planar" + RawImageFormat.EXTENSION);
+        Image planar = Utils.loadImage(new File(filePath)).toPlanar();
+        RawImageFormat.write(planar, rawFile);
+        assertTrue(Arrays.deepEquals(planar.getPixelMatrix(), RawImageFormat.open(rawFile).getPixelMatrix()));
+    }
+
+    @Test
+    void malformedFilesAreRejected() throws IOException {
+        File rawFile = new File(tempDir, "turtle" + RawImageFormat.EXTENSION);
+        RawImageFormat.convert(new File(filePath), rawFile);
+        try (RandomAccessFile file = new RandomAccessFile(rawFile, "rw")) {
+            file.setLength(file.length() - Integer.BYTES);
+        }
+        assertThrows(IOException.class, () -> RawImageFormat.map(rawFile));
+
+        try (RandomAccessFile file = new RandomAccessFile(rawFile, "rw")) {
+            file.seek(8);
+            file.writeInt(0);
+        }
+        assertThrows(IOException.class, () -> RawImageFormat.map(rawFile));
+
+        try (RandomAccessFile file = new RandomAccessFile(rawFile, "rw")) {
+            file.setLength(3);
+        }
+        assertThrows(IOException.class, () -> RawImageFormat.map(rawFile));
+    }
+}
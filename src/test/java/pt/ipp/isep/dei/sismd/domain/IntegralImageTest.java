@@ -0,0 +1,80 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntegralImageTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void windowSumsMatchDirectSums() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        IntegralImage integral = IntegralImage.of(image);
+        int[][] windows = {{0, 0, 0, 0}, {3, 17, 5, 40}, {0, image.height() - 1, 0, image.width() - 1},
+                {image.height() - 8, image.height() - 1, image.width() - 3, image.width() - 1}};
+        for (int[] window : windows) {
+            int red = 0;
+            int green = 0;
+            int blue = 0;
+            long redSquares = 0;
+            for (int i = window[0]; i <= window[1]; i++) {
+                for (int j = window[2]; j <= window[3]; j++) {
+                    int rgb = image.obtainRgb(i, j);
+                    red += Color.red(rgb);
+                    green += Color.green(rgb);
+                    blue += Color.blue(rgb);
+                    redSquares += (long) Color.red(rgb) * Color.red(rgb);
+                }
+            }
+            assertEquals(red, integral.redSum(window[0], window[1], window[2], window[3]));
+            assertEquals(green, integral.greenSum(window[0], window[1], window[2], window[3]));
+            assertEquals(blue, integral.blueSum(window[0], window[1], window[2], window[3]));
+
+            int pixels = (window[1] - window[0] + 1) * (window[3] - window[2] + 1);
+            if (pixels < 30000) {
+                IntegralImage.WindowStatistics statistics = integral.variance(window[0], window[1], window[2], window[3]);
+                double mean = (double) red / pixels;
+                assertEquals(mean, statistics.meanRed(), 1e-9);
+                assertEquals((double) redSquares / pixels - mean * mean, statistics.varianceRed(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void tablesAreCachedPerImage() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        assertSame(IntegralImage.of(image), IntegralImage.of(image));
+        assertNotSame(IntegralImage.of(image), IntegralImage.of(image.toPlanar()));
+    }
+
+    @Test
+    void varianceOfLargeWindowsDoesNotOverflow() {
+        Color[][] pixels = new Color[300][300];
+        for (Color[] row : pixels) {
+            Arrays.fill(row, new Color(255, 255, 0));
+        }
+        IntegralImage integral = IntegralImage.of(new Image(pixels));
+        IntegralImage.WindowStatistics statistics = integral.variance(0, 299, 0, 299);
+        assertEquals(90000, statistics.pixels());
+        assertEquals(255, statistics.meanRed());
+        assertEquals(0, statistics.varianceRed(), 1e-9);
+        assertEquals(0, statistics.varianceGreen(), 1e-9);
+    }
+
+    @Test
+    void evictedTablesAreNoLongerForTheImage() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        IntegralImage integral = IntegralImage.of(image);
+        assertTrue(integral.isFor(image));
+        IntegralImage.evict(image);
+        assertFalse(integral.isFor(image));
+        assertNotSame(integral, IntegralImage.of(image));
+    }
+}
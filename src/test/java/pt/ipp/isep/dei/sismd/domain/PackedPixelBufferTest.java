@@ -0,0 +1,42 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.GrayscaleFilter;
+import pt.ipp.isep.dei.sismd.filters.SwirlFilter;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedPixelBufferTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void loadPackedMatchesColorMatrix() {
+        Image image = Utils.loadImage(new File(filePath));
+        Image packed = Utils.loadPackedImage(new File(filePath));
+        assertInstanceOf(PackedPixelBuffer.class, packed.pixels());
+        assertTrue(Arrays.deepEquals(image.getPixelMatrix(), packed.getPixelMatrix()));
+        assertTrue(Arrays.deepEquals(image.getPixelMatrix(), image.toPacked().toColorMatrix().getPixelMatrix()));
+    }
+
+    @Test
+    void packedOutputMatchesColorMatrixOutput() {
+        Image image = Utils.loadImage(new File(filePath));
+        Image packed = image.toPacked();
+        for (Filter filter : new Filter[]{new BrighterFilter(20), new GrayscaleFilter(), new BlurFilter(2), new SwirlFilter()}) {
+            Image expected = new SequentialExecutor(filter).apply(image);
+            Image result = new SequentialExecutor(filter).apply(packed);
+            assertInstanceOf(PackedPixelBuffer.class, result.pixels());
+            assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), result.getPixelMatrix()));
+        }
+    }
+}
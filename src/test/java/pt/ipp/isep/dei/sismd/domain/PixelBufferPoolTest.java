@@ -0,0 +1,56 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PixelBufferPoolTest {
+
+    @Test
+    void reusesBuffersOfSameLayoutAndSize() {
+        PixelBufferPool pool = new PixelBufferPool(4);
+        PixelBuffer source = new PackedPixelBuffer(10, 20);
+        PixelBuffer first = pool.borrow(source);
+        pool.giveBack(first);
+        assertSame(first, pool.borrow(source));
+        assertNotSame(first, pool.borrow(new PackedPixelBuffer(20, 10)));
+        assertEquals(new PixelBufferPool.Statistics(1, 2, 1, 0), pool.statistics());
+    }
+
+    @Test
+    void mappedSourcesBorrowPackedBuffers() {
+        PixelBufferPool pool = new PixelBufferPool(4);
+        PackedPixelBuffer packed = new PackedPixelBuffer(2, 2);
+        pool.giveBack(packed);
+        MappedPixelBuffer mapped = new MappedPixelBuffer(2, 2, java.nio.IntBuffer.allocate(4));
+        assertSame(packed, pool.borrow(mapped));
+    }
+
+    @Test
+    void retainsAtMostCapacity() {
+        PixelBufferPool pool = new PixelBufferPool(2);
+        for (int i = 0; i < 5; i++) {
+            pool.giveBack(new PlanarPixelBuffer(4, 4));
+        }
+        pool.giveBack(new TiledPixelBuffer(4, 4));
+        assertEquals(2, pool.retained());
+        assertEquals(new PixelBufferPool.Statistics(0, 0, 5, 3), pool.statistics());
+    }
+
+    @Test
+    void buffersGivenBackTwiceAreBorrowedOnce() {
+        PixelBufferPool pool = new PixelBufferPool(4);
+        PixelBuffer source = new PackedPixelBuffer(10, 20);
+        PixelBuffer buffer = pool.borrow(source);
+        pool.giveBack(buffer);
+        pool.giveBack(buffer);
+        assertEquals(1, pool.retained());
+        PixelBuffer first = pool.borrow(source);
+        PixelBuffer second = pool.borrow(source);
+        assertSame(buffer, first);
+        assertNotSame(first, second);
+
+        pool.giveBack(first);
+        assertSame(buffer, pool.borrow(source));
+    }
+}
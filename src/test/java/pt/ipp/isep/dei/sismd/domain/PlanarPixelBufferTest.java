@@ -0,0 +1,41 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.executors.ExecutorsExecutorPerSlice;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.ConditionalBlurFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.GrayscaleFilter;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanarPixelBufferTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void roundTrip() {
+        Image image = Utils.loadImage(new File(filePath));
+        Image planar = image.toLayout(PixelLayout.PLANAR);
+        assertEquals(PixelLayout.PLANAR, planar.layout());
+        assertTrue(Arrays.deepEquals(image.getPixelMatrix(), planar.getPixelMatrix()));
+    }
+
+    @Test
+    void planarRowsMatchPerPixelOutput() {
+        Image image = Utils.loadImage(new File(filePath));
+        Image planar = image.toPlanar();
+        Filter[] filters = {new BrighterFilter(20), new GrayscaleFilter(), new ConditionalBlurFilter(3, c -> c.red() > 100)};
+        for (Filter filter : filters) {
+            Image expected = new SequentialExecutor(filter).apply(image);
+            assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), new SequentialExecutor(filter).apply(planar).getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), new ExecutorsExecutorPerSlice(filter).apply(planar).getPixelMatrix()));
+        }
+    }
+}
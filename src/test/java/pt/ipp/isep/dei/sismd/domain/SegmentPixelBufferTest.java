@@ -0,0 +1,58 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.executors.ExecutorsExecutorPerSlice;
+import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.lang.foreign.Arena;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentPixelBufferTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void executorsMatchOnHeapResult() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        Filter brighter = new BrighterFilter(20);
+        Image expected = new SequentialExecutor(brighter).apply(image);
+        try (Image offHeap = image.toOffHeap();
+             Image sequentialResult = new SequentialExecutor(brighter).apply(offHeap);
+             Image forkJoinResult = new ForkJoinExecutor(brighter).apply(offHeap);
+             Image threadPoolResult = new ExecutorsExecutorPerSlice(brighter).apply(offHeap)) {
+            assertEquals(PixelLayout.OFF_HEAP, forkJoinResult.layout());
+            assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), sequentialResult.getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), forkJoinResult.getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), threadPoolResult.getPixelMatrix()));
+        }
+    }
+
+    @Test
+    void closeFreesMemory() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        Image offHeap = image.toOffHeap();
+        offHeap.close();
+        assertThrows(IllegalStateException.class, () -> offHeap.obtainRgb(0, 0));
+    }
+
+    @Test
+    void callerArenaOwnsCopies() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        Image result;
+        try (Arena arena = Arena.ofShared()) {
+            Image offHeap = new Image(SegmentPixelBuffer.copyOf(image.pixels(), arena));
+            result = new SequentialExecutor(new BrighterFilter(20)).apply(offHeap);
+            result.close();
+            assertEquals(image.obtainRgb(0, 0), offHeap.obtainRgb(0, 0));
+        }
+        assertThrows(IllegalStateException.class, () -> result.obtainRgb(0, 0));
+    }
+}
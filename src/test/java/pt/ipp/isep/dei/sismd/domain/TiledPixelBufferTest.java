@@ -0,0 +1,41 @@
+package pt.ipp.isep.dei.sismd.domain;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TiledPixelBufferTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void tilesCoverImageOnce() {
+        TiledPixelBuffer tiled = new TiledPixelBuffer(130, 70, 32);
+        int covered = tiled.tiles().stream()
+                .mapToInt(t -> (t.endRow() - t.startRow()) * (t.endCol() - t.startCol()))
+                .sum();
+        assertEquals(130 * 70, covered);
+    }
+
+    @Test
+    void blurMatchesRowMajorAcrossTileBorders() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        Image tiled = new Image(TiledPixelBuffer.copyOf(image.pixels(), 16));
+        assertTrue(Arrays.deepEquals(image.getPixelMatrix(), tiled.getPixelMatrix()));
+        for (int radius : new int[]{1, 5, 15}) {
+            Filter blur = new BlurFilter(radius);
+            Image expected = new SequentialExecutor(blur).apply(image);
+            assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), new SequentialExecutor(blur).apply(tiled).getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), new ForkJoinExecutor(blur).apply(tiled).getPixelMatrix()));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+import pt.ipp.isep.dei.sismd.filters.SwirlFilter;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveExecutorTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void apply() {
+        Image image = Utils.loadImage(new File(filePath));
+        for (Filter filter : new Filter[]{new BrighterFilter(20), new BlurFilter(3), new SwirlFilter(5)}) {
+            Image sequentialResult = new SequentialExecutor(filter).apply(image);
+            AdaptiveExecutor executor = new AdaptiveExecutor(filter);
+            assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), executor.apply(image).getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), executor.apply(image).getPixelMatrix()));
+        }
+    }
+
+    @Test
+    void decisionsAreRecorded() {
+        Image image = Utils.loadImage(new File(filePath));
+        AdaptiveExecutor executor = new AdaptiveExecutor(new BlurFilter(3));
+        executor.apply(image);
+        executor.apply(image);
+
+        List<AdaptiveExecutor.Decision> decisions = executor.decisions();
+        assertEquals(2, decisions.size());
+        for (AdaptiveExecutor.Decision decision : decisions) {
+            assertEquals(image.height(), decision.height());
+            assertEquals(image.width(), decision.width());
+            assertTrue(decision.calibrationRows() > 0 && decision.calibrationRows() <= image.height());
+            assertTrue(decision.nanosPerPixel() > 0);
+            assertTrue(decision.chunkPixels() > 0);
+            double estimatedNanos = decision.nanosPerPixel() * (image.height() - decision.calibrationRows()) * image.width();
+            if (decision.cores() == 1 || estimatedNanos < AdaptiveExecutor.PARALLEL_THRESHOLD_NANOS) {
+                assertEquals(AdaptiveExecutor.Strategy.SEQUENTIAL, decision.strategy());
+                assertEquals((image.height() - decision.calibrationRows()) * image.width(), decision.chunkPixels());
+            } else {
+                // blur reads a neighbourhood, so it never gets plain row bands
+                assertEquals(AdaptiveExecutor.Strategy.FORK_JOIN, decision.strategy());
+                assertTrue(decision.chunkPixels() >= 1024);
+            }
+        }
+    }
+
+    @Test
+    void choosesByCostAndAccess() {
+        Filter point = new BrighterFilter(20);
+        Filter neighbourhood = new BlurFilter(3);
+        long expensive = 1000 * AdaptiveExecutor.PARALLEL_THRESHOLD_NANOS;
+        long cheap = AdaptiveExecutor.PARALLEL_THRESHOLD_NANOS / 2;
+
+        assertEquals(AdaptiveExecutor.Strategy.SEQUENTIAL, AdaptiveExecutor.choose(neighbourhood, cheap, 8));
+        assertEquals(AdaptiveExecutor.Strategy.SEQUENTIAL, AdaptiveExecutor.choose(neighbourhood, expensive, 1));
+        assertEquals(AdaptiveExecutor.Strategy.ROW_BANDS, AdaptiveExecutor.choose(point, expensive, 8));
+        assertEquals(AdaptiveExecutor.Strategy.FORK_JOIN, AdaptiveExecutor.choose(neighbourhood, expensive, 8));
+        assertEquals(AdaptiveExecutor.Strategy.FORK_JOIN, AdaptiveExecutor.choose(new SwirlFilter(5), expensive, 8));
+    }
+}
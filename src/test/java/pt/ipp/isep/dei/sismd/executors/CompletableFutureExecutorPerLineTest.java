@@ -2,19 +2,23 @@ package pt.ipp.isep.dei.sismd.executors;
 
 import org.junit.jupiter.api.Test;
 import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
 import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class CompletableFutureExecutorPerLineTest {
 
     public static final String fileName = "turtle.jpg";
-    public static final String filePath = "src/main/resources/imgs/" + fileName;
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
 
     @Test
     void apply() {
@@ -24,4 +28,33 @@ class CompletableFutureExecutorPerLineTest {
         Image completableFutureResult = new CompletableFutureExecutorPerLine(brighter).apply(image);
         assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), completableFutureResult.getPixelMatrix()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void concurrentImagesOnCallerExecutor() throws Exception {
+        Image image = Utils.loadImage(new File(filePath));
+        Filter brighter= new BrighterFilter(20);
+        Image sequentialResult = new SequentialExecutor(brighter).apply(image);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            FilterExecutor executor = new CompletableFutureExecutorPerLine(brighter, pool);
+            Future<Image> first = Executors.newSingleThreadExecutor().submit(() -> executor.apply(image));
+            Image second = executor.apply(image);
+            assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), first.get().getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), second.getPixelMatrix()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void failuresAreReported() {
+        Image image = Utils.loadImage(new File(filePath));
+        Filter failing = (i, j, img) -> {
+            if (i == 3) throw new IllegalStateException("broken row");
+            return new Color(0, 0, 0);
+        };
+        FilterExecutionException exception = assertThrows(FilterExecutionException.class,
+                () -> new CompletableFutureExecutorPerLine(failing).apply(image));
+        assertEquals("broken row", exception.getCause().getMessage());
+    }
+}
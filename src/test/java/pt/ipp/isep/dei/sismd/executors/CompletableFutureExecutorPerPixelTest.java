@@ -14,7 +14,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class CompletableFutureExecutorPerPixelTest {
 
     public static final String fileName = "turtle.jpg";
-    public static final String filePath = "src/main/resources/imgs/" + fileName;
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
 
     @Test
     void apply() {
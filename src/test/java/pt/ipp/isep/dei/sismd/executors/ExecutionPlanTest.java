@@ -0,0 +1,46 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.*;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionPlanTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void plansFollowCapabilities() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+
+        ExecutionPlan fused = ExecutionPlan.of(new BrighterFilter(20).andThen(new BrighterFilter(10)), image);
+        assertInstanceOf(LookupTableFilter.class, fused.filter());
+        assertTrue(fused.splitColumns());
+
+        ExecutionPlan blur = ExecutionPlan.of(new BlurFilter(5), image);
+        assertFalse(blur.splitColumns());
+        assertEquals(20, blur.minRows());
+        assertTrue(blur.chunkRows(image) >= 20);
+
+        ExecutionPlan swirl = ExecutionPlan.of(new SwirlFilter(), image);
+        assertEquals(FilterCapabilities.Access.GATHER, swirl.capabilities().access());
+        assertTrue(swirl.chunkPixels() < ExecutionPlan.of(new GrayscaleFilter(), image).chunkPixels());
+    }
+
+    @Test
+    void plannedExecutorsMatchSequential() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        Filter[] filters = {new BlurFilter(5), new BrighterFilter(20).andThen(new GrayscaleFilter()), new SwirlFilter()};
+        for (Filter filter : filters) {
+            Image sequentialResult = new SequentialExecutor(filter).apply(image);
+            assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), new ForkJoinExecutor(filter).apply(image).getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), new MultithreadedExecutor(2, filter).apply(image).getPixelMatrix()));
+        }
+    }
+}
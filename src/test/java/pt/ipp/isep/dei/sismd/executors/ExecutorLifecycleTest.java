@@ -0,0 +1,97 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorLifecycleTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void executorsAreReusableAcrossImages() {
+        Image image = Utils.loadImage(new File(filePath));
+        Filter brighter = new BrighterFilter(20);
+        Image sequentialResult = new SequentialExecutor(brighter).apply(image);
+        List<FilterExecutor> executors = List.of(new ExecutorsExecutorPerLine(brighter),
+                new ExecutorsExecutorPerSlice(brighter, 3), new ForkJoinExecutor(brighter),
+                new ForkJoinExecutor(brighter, 5000, 2));
+        for (FilterExecutor executor : executors) {
+            try (executor) {
+                for (int run = 0; run < 3; run++) {
+                    assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), executor.apply(image).getPixelMatrix()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void concurrentImagesOnSharedPoolDoNotInterfere() {
+        Image image = Utils.loadImage(new File(filePath));
+        Filter brighter = new BrighterFilter(20);
+        Image sequentialResult = new SequentialExecutor(brighter).apply(image);
+        FilterExecutor executor = new ExecutorsExecutorPerLine(brighter);
+        List<CompletableFuture<Image>> results = List.of(
+                CompletableFuture.supplyAsync(() -> executor.apply(image)),
+                CompletableFuture.supplyAsync(() -> executor.apply(image)));
+        for (CompletableFuture<Image> result : results) {
+            assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), result.join().getPixelMatrix()));
+        }
+    }
+
+    @Test
+    void failuresAndClosingAreReported() {
+        Image image = Utils.loadImage(new File(filePath));
+        Filter failing = (i, j, img) -> {
+            if (i == 3) throw new IllegalStateException("broken row");
+            return new Color(0, 0, 0);
+        };
+        FilterExecutor executor = new ExecutorsExecutorPerLine(failing, 2);
+        FilterExecutionException exception = assertThrows(FilterExecutionException.class, () -> executor.apply(image));
+        assertEquals("broken row", exception.getCause().getMessage());
+        executor.close();
+        assertThrows(IllegalStateException.class, () -> executor.apply(image));
+    }
+
+    @Test
+    void closedExecutorsRejectImages() {
+        Image image = Utils.loadImage(new File(filePath));
+        Filter brighter = new BrighterFilter(20);
+        List<FilterExecutor> executors = List.of(new ExecutorsExecutorPerSlice(brighter, 2),
+                new ForkJoinExecutor(brighter), new ForkJoinExecutor(brighter, 5000, 2),
+                new VirtualThreadExecutor(brighter), new SelfSchedulingExecutor(brighter),
+                new SelfSchedulingExecutor(brighter, SelfSchedulingExecutor.Schedule.FIXED, 2));
+        for (FilterExecutor executor : executors) {
+            executor.close();
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> executor.apply(image));
+            assertEquals("Executor is closed", exception.getMessage());
+        }
+    }
+
+    @Test
+    void rejectedTasksAreNotAwaited() {
+        AtomicInteger accepted = new AtomicInteger();
+        TaskGroup tasks = new TaskGroup(task -> {
+            if (accepted.incrementAndGet() > 2) throw new RejectedExecutionException("full");
+            task.run();
+        });
+        tasks.submit(() -> { });
+        tasks.submit(() -> { });
+        assertThrows(RejectedExecutionException.class, () -> tasks.submit(() -> { }));
+        assertDoesNotThrow(() -> tasks.await(1, TimeUnit.SECONDS));
+    }
+}
@@ -2,7 +2,9 @@ package pt.ipp.isep.dei.sismd.executors;
 
 import org.junit.jupiter.api.Test;
 import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Color;
 import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
 import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
 import pt.ipp.isep.dei.sismd.filters.Filter;
 
@@ -14,7 +16,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class ForkJoinExecutorTest {
 
     public static final String fileName = "turtle.jpg";
-    public static final String filePath = "src/main/resources/imgs/" + fileName;
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
 
     @Test
     void apply() {
@@ -24,4 +26,33 @@ class ForkJoinExecutorTest {
         Image forkjoinResult = new ForkJoinExecutor(brighter).apply(image);
         assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), forkjoinResult .getPixelMatrix()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void rowBands() {
+        Image image = Utils.loadImage(new File(filePath));
+        for (Filter filter : new Filter[]{new BrighterFilter(20), new BlurFilter(3)}) {
+            Image sequentialResult = new SequentialExecutor(filter).apply(image);
+            for (int threshold : new int[]{100, 5000, 100000}) {
+                Image forkjoinResult = new ForkJoinExecutor(filter, threshold, ForkJoinExecutor.Splitting.ROW_BANDS).apply(image);
+                assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), forkjoinResult.getPixelMatrix()));
+            }
+        }
+    }
+
+    @Test
+    void rowBandsOnThinImages() {
+        Filter brighter = new BrighterFilter(20);
+        for (int[] size : new int[][]{{1, 3000}, {3000, 1}, {3, 2000}}) {
+            Color[][] pixels = new Color[size[0]][size[1]];
+            for (int i = 0; i < size[0]; i++) {
+                for (int j = 0; j < size[1]; j++) {
+                    pixels[i][j] = new Color((i * 7 + j) % 256, j % 256, i % 256);
+                }
+            }
+            Image image = new Image(pixels);
+            Image sequentialResult = new SequentialExecutor(brighter).apply(image);
+            Image forkjoinResult = new ForkJoinExecutor(brighter, 100, ForkJoinExecutor.Splitting.ROW_BANDS).apply(image);
+            assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), forkjoinResult.getPixelMatrix()));
+        }
+    }
+}
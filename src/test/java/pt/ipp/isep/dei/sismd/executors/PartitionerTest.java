@@ -0,0 +1,104 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionerTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    private static final List<Partitioner> PARTITIONERS = List.of(
+            Partitioner.rowBands(),
+            Partitioner.columnBands(),
+            Partitioner.squareTiles(64),
+            Partitioner.zOrderTiles(64),
+            Partitioner.hilbertTiles(64));
+
+    @Test
+    void regionsCoverEveryPixelOnce() {
+        for (Partitioner partitioner : PARTITIONERS) {
+            for (int[] size : new int[][]{{1, 1}, {7, 3000}, {3000, 7}, {522, 696}, {130, 129}}) {
+                int[][] covered = new int[size[0]][size[1]];
+                for (Partitioner.Region region : partitioner.partition(size[0], size[1], 5)) {
+                    for (int i = region.startRow(); i < region.endRow(); i++) {
+                        for (int j = region.startCol(); j < region.endCol(); j++) {
+                            covered[i][j]++;
+                        }
+                    }
+                }
+                for (int[] row : covered) {
+                    assertTrue(Arrays.stream(row).allMatch(count -> count == 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void bands() {
+        assertEquals(5, Partitioner.rowBands().partition(100, 10, 5).size());
+        assertEquals(3, Partitioner.rowBands().partition(3, 10, 5).size());
+        assertEquals(new Partitioner.Region(0, 100, 0, 2), Partitioner.columnBands().partition(100, 10, 5).getFirst());
+    }
+
+    @Test
+    void hilbertTilesAreAdjacent() {
+        List<Partitioner.Region> tiles = Partitioner.hilbertTiles(1).partition(16, 16, 1);
+        assertEquals(256, tiles.size());
+        for (int k = 1; k < tiles.size(); k++) {
+            int distance = Math.abs(tiles.get(k).startRow() - tiles.get(k - 1).startRow())
+                    + Math.abs(tiles.get(k).startCol() - tiles.get(k - 1).startCol());
+            assertEquals(1, distance);
+        }
+    }
+
+    @Test
+    void zOrderVisitsQuadrantsInTurn() {
+        List<Partitioner.Region> tiles = Partitioner.zOrderTiles(1).partition(4, 4, 1);
+        assertEquals(List.of(
+                new Partitioner.Region(0, 1, 0, 1), new Partitioner.Region(0, 1, 1, 2),
+                new Partitioner.Region(1, 2, 0, 1), new Partitioner.Region(1, 2, 1, 2)), tiles.subList(0, 4));
+    }
+
+    @Test
+    void assignKeepsRunsContiguousAndBalanced() {
+        List<Partitioner.Region> tiles = Partitioner.hilbertTiles(8).partition(64, 64, 1);
+        List<List<Partitioner.Region>> runs = Partitioner.assign(tiles, 4);
+        assertEquals(4, runs.size());
+        assertEquals(tiles, runs.stream().flatMap(List::stream).toList());
+        for (List<Partitioner.Region> run : runs) {
+            assertEquals(64 * 64 / 4, run.stream().mapToLong(Partitioner.Region::pixels).sum());
+        }
+        assertEquals(2, Partitioner.assign(Partitioner.rowBands().partition(2, 10, 2), 4).size());
+    }
+
+    @Test
+    void executorsWithPartitioners() {
+        Image image = Utils.loadImage(new File(filePath));
+        for (Filter filter : new Filter[]{new BrighterFilter(20), new BlurFilter(3)}) {
+            Image sequentialResult = new SequentialExecutor(filter).apply(image);
+            for (Partitioner partitioner : PARTITIONERS) {
+                for (FilterExecutor executor : new FilterExecutor[]{
+                        new MultithreadedExecutor(3, filter, partitioner),
+                        new ExecutorsExecutorPerSlice(filter, partitioner),
+                        new CompletableFutureExecutorPerSlice(filter, partitioner),
+                        new ForkJoinExecutor(filter, partitioner),
+                        new VirtualThreadExecutor(filter, partitioner, 2)}) {
+                    try (executor) {
+                        assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), executor.apply(image).getPixelMatrix()));
+                    }
+                }
+            }
+        }
+    }
+}
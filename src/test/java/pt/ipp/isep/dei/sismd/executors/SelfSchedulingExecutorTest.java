@@ -0,0 +1,56 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.ConditionalBlurFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfSchedulingExecutorTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void apply() {
+        Image image = Utils.loadImage(new File(filePath));
+        for (Filter filter : new Filter[]{new BrighterFilter(20), new BlurFilter(3),
+                new ConditionalBlurFilter(3, c -> c.red() > c.blue())}) {
+            Image sequentialResult = new SequentialExecutor(filter).apply(image);
+            for (SelfSchedulingExecutor.Schedule schedule : SelfSchedulingExecutor.Schedule.values()) {
+                try (FilterExecutor executor = new SelfSchedulingExecutor(filter, schedule, 3)) {
+                    assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), executor.apply(image).getPixelMatrix()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void statisticsCoverEveryRow() {
+        Image image = Utils.loadImage(new File(filePath));
+        try (SelfSchedulingExecutor fixed = new SelfSchedulingExecutor(new BrighterFilter(20), SelfSchedulingExecutor.Schedule.FIXED, 3);
+             SelfSchedulingExecutor guided = new SelfSchedulingExecutor(new BrighterFilter(20), SelfSchedulingExecutor.Schedule.GUIDED, 3)) {
+            assertNull(guided.lastStatistics());
+            fixed.apply(image);
+            guided.apply(image);
+
+            for (SelfSchedulingExecutor executor : new SelfSchedulingExecutor[]{fixed, guided}) {
+                SelfSchedulingExecutor.Statistics statistics = executor.lastStatistics();
+                assertEquals(3, statistics.workers().size());
+                assertEquals(image.height(), statistics.workers().stream().mapToInt(SelfSchedulingExecutor.WorkerStatistics::rows).sum());
+                assertTrue(statistics.imbalance() >= 1);
+            }
+            int fixedChunks = fixed.lastStatistics().workers().stream().mapToInt(SelfSchedulingExecutor.WorkerStatistics::chunks).sum();
+            int guidedChunks = guided.lastStatistics().workers().stream().mapToInt(SelfSchedulingExecutor.WorkerStatistics::chunks).sum();
+            assertEquals(image.height(), fixedChunks);
+            assertTrue(guidedChunks < fixedChunks / 4);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TuningProfileTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void sizeClasses() {
+        assertEquals(TuningProfile.SizeClass.small, TuningProfile.SizeClass.of(522, 696));
+        assertEquals(TuningProfile.SizeClass.medium, TuningProfile.SizeClass.of(1213, 1820));
+        assertEquals(TuningProfile.SizeClass.big, TuningProfile.SizeClass.of(2160, 3840));
+        assertEquals(TuningProfile.SizeClass.huge, TuningProfile.SizeClass.of(4320, 7680));
+    }
+
+    @Test
+    void savedProfileIsLoaded(@TempDir Path directory) {
+        Image image = Utils.loadImage(new File(filePath));
+        TuningProfile profile = new TuningProfile();
+        profile.setParallelism(6);
+        profile.put(BlurFilter.class, TuningProfile.SizeClass.small, new TuningProfile.Entry(12.5, 3, 50000));
+        profile.put(BlurFilter.class, TuningProfile.SizeClass.big, new TuningProfile.Entry(80, 0, 0));
+        Path path = directory.resolve("profile.properties");
+        profile.save(path, "test");
+
+        TuningProfile loaded = TuningProfile.load(path);
+        assertEquals(OptionalInt.of(6), loaded.parallelism());
+        assertEquals(Optional.of(new TuningProfile.Entry(12.5, 3, 50000)), loaded.entry(new BlurFilter(), image));
+        assertEquals(OptionalInt.of(50000), loaded.threshold(new BlurFilter(), image));
+        assertEquals(OptionalInt.of(3), loaded.threads(new BlurFilter(), image));
+        assertTrue(loaded.entry(new BrighterFilter(), image).isEmpty());
+        assertTrue(loaded.threshold(new BrighterFilter(), image).isEmpty());
+    }
+
+    @Test
+    void malformedValuesNameTheFileAndKey(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("profile.properties");
+        Files.writeString(path, "threads=8\nblur.small.millis=12.5\nblur.small.threshold=5O000\n");
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> TuningProfile.load(path));
+        assertTrue(exception.getMessage().contains("blur.small.threshold"));
+        assertTrue(exception.getMessage().contains(path.toString()));
+
+        Files.writeString(path, "threads=\n");
+        assertThrows(IllegalArgumentException.class, () -> TuningProfile.load(path));
+    }
+}
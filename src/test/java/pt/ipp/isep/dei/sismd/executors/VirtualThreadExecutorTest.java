@@ -0,0 +1,33 @@
+package pt.ipp.isep.dei.sismd.executors;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.filters.BlurFilter;
+import pt.ipp.isep.dei.sismd.filters.BrighterFilter;
+import pt.ipp.isep.dei.sismd.filters.Filter;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadExecutorTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void apply() {
+        Image image = Utils.loadImage(new File(filePath));
+        for (Filter filter : new Filter[]{new BrighterFilter(20), new BlurFilter(3)}) {
+            Image sequentialResult = new SequentialExecutor(filter).apply(image);
+            for (VirtualThreadExecutor.Granularity granularity : VirtualThreadExecutor.Granularity.values()) {
+                try (FilterExecutor executor = new VirtualThreadExecutor(filter, granularity, 2)) {
+                    assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), executor.apply(image).getPixelMatrix()));
+                    assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), executor.apply(image).getPixelMatrix()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.executors.ExecutorsExecutorPerSlice;
+import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalBlurFilterTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void slidingWindowMatchesPerPixelWindow() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        for (int radius : new int[]{1, 5, 15}) {
+            ConditionalBlurFilter[] filters = {new BlurFilter(radius),
+                    new ConditionalBlurFilter(radius, c -> c.red() > c.blue())};
+            for (ConditionalBlurFilter filter : filters) {
+                PixelBuffer expected = image.pixels().emptyCopy();
+                for (int i = 0; i < image.height(); i++) {
+                    for (int j = 0; j < image.width(); j++) {
+                        expected.setRgb(i, j, filter.applyRgb(i, j, image));
+                    }
+                }
+                PixelBuffer regions = image.pixels().emptyCopy();
+                int midRow = image.height() / 3;
+                int midCol = image.width() / 2;
+                filter.applyRegion(image, regions, 0, midRow, 0, image.width());
+                filter.applyRegion(image, regions, midRow, image.height(), 0, midCol);
+                filter.applyRegion(image, regions, midRow, image.height(), midCol, image.width());
+                assertTrue(Arrays.deepEquals(expected.toColorMatrix(), regions.toColorMatrix()), "radius " + radius);
+            }
+        }
+    }
+
+    @Test
+    void integralImageModeMatchesSlidingWindow() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        for (int radius : new int[]{1, 5, 15}) {
+            ConditionalBlurFilter slidingWindow = new ConditionalBlurFilter(radius, c -> c.red() > c.blue());
+            ConditionalBlurFilter integral = new ConditionalBlurFilter(radius, c -> c.red() > c.blue(),
+                    ConditionalBlurFilter.Mode.INTEGRAL_IMAGE);
+            PixelBuffer expected = image.pixels().emptyCopy();
+            PixelBuffer actual = image.pixels().emptyCopy();
+            slidingWindow.applyRegion(image, expected, 0, image.height(), 0, image.width());
+            integral.applyRegion(image, actual, 0, image.height(), 0, image.width());
+            assertTrue(Arrays.deepEquals(expected.toColorMatrix(), actual.toColorMatrix()), "radius " + radius);
+        }
+    }
+
+    @Test
+    void sparseMatchesGiveSameResultOnEveryExecutor() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        for (ConditionalBlurFilter.Mode mode : ConditionalBlurFilter.Mode.values()) {
+            ConditionalBlurFilter filter = ConditionalBlurFilter.ofRgb(3, rgb -> Color.red(rgb) > 200, mode);
+            PixelBuffer expected = image.pixels().emptyCopy();
+            for (int i = 0; i < image.height(); i++) {
+                for (int j = 0; j < image.width(); j++) {
+                    expected.setRgb(i, j, filter.applyRgb(i, j, image));
+                }
+            }
+            assertTrue(Arrays.deepEquals(expected.toColorMatrix(), new SequentialExecutor(filter).apply(image).getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(expected.toColorMatrix(), new ForkJoinExecutor(filter, 500).apply(image).getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(expected.toColorMatrix(), new ExecutorsExecutorPerSlice(filter).apply(image).getPixelMatrix()));
+            assertTrue(Arrays.deepEquals(expected.toColorMatrix(),
+                    new SequentialExecutor(filter).apply(image.toTiled()).getPixelMatrix()));
+        }
+    }
+}
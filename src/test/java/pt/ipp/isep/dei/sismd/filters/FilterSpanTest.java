@@ -0,0 +1,39 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterSpanTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void spanMatchesPerPixel() {
+        Image image = Utils.loadImage(new File(filePath));
+        Filter[] filters = {new BrighterFilter(20), new GrayscaleFilter(), new SwirlFilter(-10), new BlurFilter(2),
+                new ConditionalBlurFilter(3, c -> c.red() > 100)};
+        for (Filter filter : filters) {
+            for (Image source : new Image[]{image, image.toPacked()}) {
+                PixelBuffer perPixel = source.pixels().emptyCopy();
+                PixelBuffer spans = source.pixels().emptyCopy();
+                for (int i = 0; i < source.height(); i++) {
+                    for (int j = 0; j < source.width(); j++) {
+                        perPixel.setRgb(i, j, filter.applyRgb(i, j, source));
+                    }
+                    int middle = source.width() / 3;
+                    filter.applySpan(i, 0, middle, source, spans);
+                    filter.applySpan(i, middle, source.width(), source, spans);
+                }
+                assertTrue(Arrays.deepEquals(perPixel.toColorMatrix(), spans.toColorMatrix()), filter.getClass().getSimpleName());
+            }
+        }
+    }
+}
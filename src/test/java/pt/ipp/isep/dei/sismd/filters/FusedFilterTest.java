@@ -0,0 +1,58 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.executors.ExecutorsExecutorPerSlice;
+import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FusedFilterTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    private static final PointFilter WARM_TONE = PointFilter.of(rgb ->
+            Color.rgb(Math.min(Color.red(rgb) + 10, 255), Color.green(rgb), Color.blue(rgb) / 2));
+
+    @Test
+    void fusedMatchesChained() {
+        Image image = Utils.loadImage(new File(filePath));
+        PointFilter brighter = new BrighterFilter(30);
+        PointFilter grayscale = new GrayscaleFilter();
+
+        Image chained = new SequentialExecutor(brighter).apply(image);
+        chained = new SequentialExecutor(grayscale).apply(chained);
+        chained = new SequentialExecutor(WARM_TONE).apply(chained);
+
+        FusedFilter fused = brighter.andThen(grayscale).andThen(WARM_TONE);
+        assertEquals(3, fused.filters().size());
+        assertTrue(Arrays.deepEquals(chained.getPixelMatrix(), new SequentialExecutor(fused).apply(image).getPixelMatrix()));
+        assertTrue(Arrays.deepEquals(chained.getPixelMatrix(), new ForkJoinExecutor(fused).apply(image.toPacked()).getPixelMatrix()));
+        assertTrue(Arrays.deepEquals(chained.getPixelMatrix(), new ExecutorsExecutorPerSlice(fused).apply(image.toPlanar()).getPixelMatrix()));
+    }
+
+    @Test
+    void lookupTablesComposeWhenPossible() {
+        PointFilter brighter = new BrighterFilter(30);
+        PointFilter grayscale = new GrayscaleFilter();
+        assertTrue(FusedFilter.of(brighter, grayscale).lookupTable().isEmpty());
+        assertTrue(FusedFilter.of(brighter, WARM_TONE).lookupTable().isEmpty());
+
+        FusedFilter[] compilable = {FusedFilter.of(brighter, new BrighterFilter(50)),
+                FusedFilter.of(grayscale, brighter, new BrighterFilter(50))};
+        for (FusedFilter fused : compilable) {
+            LookupTable table = fused.lookupTable().orElseThrow();
+            assertSame(table, fused.lookupTable().orElseThrow());
+            for (int rgb = 0; rgb <= 0xFFFFFF; rgb += 0x010203) {
+                assertEquals(fused.applyToRgb(rgb), table.apply(rgb));
+            }
+        }
+    }
+}
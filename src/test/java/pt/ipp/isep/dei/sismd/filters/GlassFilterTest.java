@@ -0,0 +1,34 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.executors.ExecutorsExecutorPerLine;
+import pt.ipp.isep.dei.sismd.executors.ExecutorsExecutorPerPixel;
+import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlassFilterTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void sameSeedGivesSameImageOnEveryExecutor() {
+        Image image = Utils.loadImage(new File(filePath));
+        Filter glass = new GlassFilter(5, 42);
+        Image sequentialResult = new SequentialExecutor(glass).apply(image);
+        assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(),
+                new SequentialExecutor(new GlassFilter(5, 42)).apply(image).getPixelMatrix()));
+        assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), new ForkJoinExecutor(glass).apply(image).getPixelMatrix()));
+        assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), new ExecutorsExecutorPerLine(glass).apply(image).getPixelMatrix()));
+        assertTrue(Arrays.deepEquals(sequentialResult.getPixelMatrix(), new ExecutorsExecutorPerPixel(glass).apply(image).getPixelMatrix()));
+        assertFalse(Arrays.deepEquals(sequentialResult.getPixelMatrix(),
+                new SequentialExecutor(new GlassFilter(5, 43)).apply(image).getPixelMatrix()));
+    }
+}
@@ -0,0 +1,43 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.executors.ForkJoinExecutor;
+import pt.ipp.isep.dei.sismd.executors.SequentialExecutor;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupTableFilterTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void tablesMatchArithmetic() {
+        PointFilter[] filters = {new BrighterFilter(37), new GrayscaleFilter()};
+        for (PointFilter filter : filters) {
+            LookupTable table = filter.lookupTable().orElseThrow();
+            for (int rgb = 0; rgb <= 0xFFFFFF; rgb += 0x010203) {
+                assertEquals(filter.applyToRgb(rgb), table.apply(rgb));
+            }
+        }
+    }
+
+    @Test
+    void lookupTableModeMatchesPerPixelMode() {
+        Image image = Utils.loadImage(new File(filePath));
+        PointFilter[] filters = {new BrighterFilter(37), new GrayscaleFilter()};
+        for (PointFilter filter : filters) {
+            Filter lookupTableFilter = new LookupTableFilter(filter);
+            Image expected = new SequentialExecutor(filter).apply(image);
+            for (Image source : new Image[]{image, image.toPacked(), image.toPlanar()}) {
+                assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), new SequentialExecutor(lookupTableFilter).apply(source).getPixelMatrix()));
+                assertTrue(Arrays.deepEquals(expected.getPixelMatrix(), new ForkJoinExecutor(lookupTableFilter).apply(source).getPixelMatrix()));
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBufferPool;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PixelMaskTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void matchesPredicateAndFindsRuns() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        RgbPredicate predicate = rgb -> Color.red(rgb) > 150;
+        PixelMask mask = PixelMask.of(image, predicate);
+        int matches = 0;
+        for (int i = 0; i < image.height(); i++) {
+            int expectedNext = image.width();
+            for (int j = image.width() - 1; j >= 0; j--) {
+                boolean match = predicate.test(image.obtainRgb(i, j));
+                assertEquals(match, mask.get(i, j));
+                if (match) {
+                    matches++;
+                    expectedNext = j;
+                }
+                assertEquals(expectedNext, mask.nextMatch(i, j, image.width()));
+            }
+        }
+        assertEquals(matches, mask.count());
+        assertEquals(mask.count(), mask.count(0, image.height(), 0, image.width()));
+        assertEquals(mask.count(3, 40), mask.count(3, 40, 0, 70) + mask.count(3, 40, 70, image.width()));
+    }
+
+    @Test
+    void rowBandsBalanceMatches() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        PixelMask mask = PixelMask.of(image, rgb -> Color.red(rgb) > 150);
+        int[] bands = mask.rowBands(4, 1000);
+        assertEquals(0, bands[0]);
+        assertEquals(image.height(), bands[4]);
+        for (int band = 0; band < 4; band++) {
+            assertTrue(bands[band] <= bands[band + 1]);
+            assertTrue(Math.abs(mask.count(bands[band], bands[band + 1]) - mask.count() / 4) <= mask.count() / 8 + image.width());
+        }
+    }
+
+    @Test
+    void givenBackImagesLoseTheirCachedMask() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        RgbPredicate predicate = rgb -> Color.red(rgb) > 150;
+        PixelMask mask = PixelMask.cached(image, predicate);
+        assertSame(mask, PixelMask.cached(image, predicate));
+        new PixelBufferPool(1).giveBack(image);
+        assertNotSame(mask, PixelMask.cached(image, predicate));
+    }
+}
@@ -0,0 +1,73 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwirlFilterTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @Test
+    void displacementMapMatchesPerPixelSwirl() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        for (Image source : new Image[]{image, image.toPlanar()}) {
+            SwirlFilter cached = new SwirlFilter(70, new DisplacementMapCache(DisplacementMapCache.DEFAULT_CAPACITY_BYTES));
+            SwirlFilter uncached = new SwirlFilter(70, new DisplacementMapCache(0));
+            PixelBuffer expected = source.pixels().emptyCopy();
+            PixelBuffer actual = source.pixels().emptyCopy();
+            for (int i = 0; i < source.height(); i++) {
+                uncached.applySpan(i, 0, source.width(), source, expected);
+                cached.applySpan(i, 0, source.width(), source, actual);
+            }
+            assertTrue(Arrays.deepEquals(expected.toColorMatrix(), actual.toColorMatrix()));
+        }
+    }
+
+    @Test
+    void cacheIsBoundedByBytes() {
+        DisplacementMapCache cache = new DisplacementMapCache(2 * 100 * 100 * Integer.BYTES);
+        int[] first = new SwirlFilter(50, cache).displacementMap(100, 100);
+        assertSame(first, new SwirlFilter(50, cache).displacementMap(100, 100));
+        new SwirlFilter(60, cache).displacementMap(100, 100);
+        new SwirlFilter(70, cache).displacementMap(100, 100);
+        assertNull(new SwirlFilter(50, cache).displacementMap(200, 200));
+        assertEquals(2, cache.size());
+        assertEquals(2 * 100 * 100 * Integer.BYTES, cache.retainedBytes());
+        assertEquals(new DisplacementMapCache.Statistics(1, 3, 1, 1), cache.statistics());
+    }
+
+    @Test
+    void fastModeStaysWithinOnePixelOfExact() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        for (int intensity : new int[]{-100, 20, 100, 400}) {
+            SwirlFilter exact = new SwirlFilter(intensity, new DisplacementMapCache(0));
+            SwirlFilter fast = new SwirlFilter(intensity, SwirlFilter.Mode.FAST, new DisplacementMapCache(0));
+            int differentPixels = 0;
+            for (int i = 0; i < image.height(); i++) {
+                for (int j = 0; j < image.width(); j++) {
+                    if (exact.applyRgb(i, j, image) != fast.applyRgb(i, j, image)) differentPixels++;
+                }
+            }
+            int pixels = image.height() * image.width();
+            assertTrue(differentPixels < pixels / 20,
+                    "intensity " + intensity + ": " + differentPixels + " of " + pixels + " pixels differ in fast mode");
+
+            int width = image.width();
+            int[] exactMap = new SwirlFilter(intensity, new DisplacementMapCache(Long.MAX_VALUE)).displacementMap(image.height(), width);
+            int[] fastMap = new SwirlFilter(intensity, SwirlFilter.Mode.FAST, new DisplacementMapCache(Long.MAX_VALUE))
+                    .displacementMap(image.height(), width);
+            for (int k = 0; k < exactMap.length; k++) {
+                assertTrue(Math.abs(exactMap[k] / width - fastMap[k] / width) <= 1);
+                assertTrue(Math.abs(exactMap[k] % width - fastMap[k] % width) <= 1);
+            }
+        }
+    }
+}
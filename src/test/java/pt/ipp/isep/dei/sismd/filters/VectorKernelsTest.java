@@ -0,0 +1,88 @@
+package pt.ipp.isep.dei.sismd.filters;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.ipp.isep.dei.sismd.Utils;
+import pt.ipp.isep.dei.sismd.domain.Color;
+import pt.ipp.isep.dei.sismd.domain.Image;
+import pt.ipp.isep.dei.sismd.domain.PackedPixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PixelBuffer;
+import pt.ipp.isep.dei.sismd.domain.PlanarPixelBuffer;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VectorKernelsTest {
+
+    public static final String fileName = "turtle.jpg";
+    public static final String filePath = "src/main/resources/imgs/small/" + fileName;
+
+    @BeforeEach
+    void requireVectorModule() {
+        assumeTrue(Simd.ENABLED, "run with --add-modules jdk.incubator.vector");
+    }
+
+    @Test
+    void pointFiltersMatchScalarResults() {
+        Image image = Utils.loadPackedImage(new File(filePath));
+        PointFilter[] filters = {new BrighterFilter(20), new BrighterFilter(255), new BrighterFilter(-30), new GrayscaleFilter()};
+        for (PointFilter filter : filters) {
+            PixelBuffer expected = image.pixels().emptyCopy();
+            for (int i = 0; i < image.height(); i++) {
+                for (int j = 0; j < image.width(); j++) {
+                    expected.setRgb(i, j, filter.applyToRgb(image.obtainRgb(i, j)));
+                }
+            }
+            PixelBuffer packed = image.pixels().emptyCopy();
+            for (int i = 0; i < image.height(); i++) {
+                filter.applySpan(i, 1, image.width(), image, packed);
+                filter.applySpan(i, 0, 1, image, packed);
+            }
+            assertTrue(Arrays.equals(((PackedPixelBuffer) expected).pixels(), ((PackedPixelBuffer) packed).pixels()));
+
+            if (filter instanceof BrighterFilter brighter && brighter.applyToRgb(0) < 0) continue;
+            Image planarImage = image.toPlanar();
+            PlanarPixelBuffer planar = (PlanarPixelBuffer) planarImage.pixels().emptyCopy();
+            ((PlanarFilter) filter).applyRows((PlanarPixelBuffer) planarImage.pixels(), planar, 0, image.height());
+            assertTrue(Arrays.deepEquals(expected.toColorMatrix(), planar.toColorMatrix()));
+        }
+    }
+
+    @Test
+    void bytePlanesSaturateLikeScalarCode() {
+        byte[] source = new byte[1027];
+        new Random(7).nextBytes(source);
+        for (int brightness : new int[]{0, 1, 100, 254, 255}) {
+            byte[] destination = new byte[source.length];
+            VectorKernels.brighten(source, destination, 3, source.length, brightness);
+            for (int k = 3; k < source.length; k++) {
+                assertEquals((byte) Math.min((source[k] & 0xFF) + brightness, 255), destination[k]);
+            }
+        }
+    }
+
+    @Test
+    void accumulateRowMatchesScalarSums() {
+        Random random = new Random(11);
+        int[] pixels = random.ints(1000, 0, 1 << 24).toArray();
+        int[] red = random.ints(331, 0, 10000).toArray();
+        int[] green = red.clone();
+        int[] blue = red.clone();
+        int[] expectedRed = red.clone();
+        int[] expectedGreen = red.clone();
+        int[] expectedBlue = red.clone();
+        VectorKernels.accumulateRow(pixels, 17, red, green, blue, -1);
+        for (int c = 0; c < expectedRed.length; c++) {
+            expectedRed[c] -= Color.red(pixels[17 + c]);
+            expectedGreen[c] -= Color.green(pixels[17 + c]);
+            expectedBlue[c] -= Color.blue(pixels[17 + c]);
+        }
+        assertArrayEquals(expectedRed, red);
+        assertArrayEquals(expectedGreen, green);
+        assertArrayEquals(expectedBlue, blue);
+    }
+}